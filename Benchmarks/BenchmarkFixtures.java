@@ -0,0 +1,96 @@
+import v2.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Boards shared by the benchmarks: the fixtures of {@link BoardUtils} by field name, and corpora of
+ * puzzles generated from a fixed seed, so two runs of the same sources measure the same boards.
+ */
+public final class BenchmarkFixtures {
+
+    public static final long CORPUS_SEED = 20240601L;
+
+    private static final Map<String, int[][][]> corpora = new HashMap<>();
+
+    private BenchmarkFixtures() {
+    }
+
+    /**
+     * @param name name of a board of {@link BoardUtils}, like "hardBoard" or "giantBoard1"
+     */
+    public static int[][] fixture(String name) {
+        try {
+            return (int[][]) BoardUtils.class.getField(name).get(null);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalArgumentException("No board " + name + " in BoardUtils", e);
+        }
+    }
+
+    /**
+     * Generates grids and digs them down to puzzles the strategies solve alone, the same puzzles
+     * for the same size and count, cached for the forks that ask for them again.
+     */
+    public static synchronized int[][][] corpus(int size, int count) {
+        String key = size + "x" + count;
+        int[][][] corpus = corpora.get(key);
+        if(corpus == null){
+            SudokuGridGenerator generator = new SudokuGridGenerator(CORPUS_SEED);
+            PuzzleDigger digger = new PuzzleDigger(CORPUS_SEED);
+            corpus = new int[count][][];
+            for (int i = 0; i < count; i++) {
+                int[] puzzle = digger.dig(generator.generateGrid(size), size, PuzzleDigger.RemovalOrder.STRATEGY_CONSTRAINED);
+                corpus[i] = BoardUtils.toIntBoard(puzzle, size);
+            }
+            corpora.put(key, corpus);
+        }
+        return corpus;
+    }
+
+    /**
+     * Copies of the cells of a board after the eliminations of its givens, detached from any board,
+     * so a strategy can run on them without the board placing singles in between.
+     */
+    public static Cell[][] detachedCells(Board board, int size, EliminationSink eliminations) {
+        Cell[][] cells = new Cell[size][size];
+        for (int row = 0; row < size; row++) {
+            for (int column = 0; column < size; column++) {
+                Cell source = board.getCell(row, column);
+                Cell cell = new Cell(source.getValue(), size, row, column, eliminations);
+                if(cell.isEmpty()){
+                    for (int number = 1; number <= size; number++) {
+                        if(!source.hasOption(number))
+                            cell.addIneligible(number, Technique.INITIALIZATION);
+                    }
+                }
+                cells[row][column] = cell;
+            }
+        }
+        return cells;
+    }
+
+    public static List<Row> rows(Cell[][] cells) {
+        List<Row> rows = new ArrayList<>();
+        for (int i = 0; i < cells.length; i++) {
+            rows.add(new Row(i, cells.length, cells[i]));
+        }
+        return rows;
+    }
+
+    public static List<Box> boxes(Cell[][] cells) {
+        int sqrSize = Topology.of(cells.length).getBoxSize();
+        List<Box> boxes = new ArrayList<>();
+        for (int localRowIndex = 0; localRowIndex < sqrSize; localRowIndex++) {
+            for (int localColumnIndex = 0; localColumnIndex < sqrSize; localColumnIndex++) {
+                Cell[][] box = new Cell[sqrSize][sqrSize];
+                for (int row = 0; row < sqrSize; row++) {
+                    System.arraycopy(cells[localRowIndex * sqrSize + row], localColumnIndex * sqrSize, box[row], 0, sqrSize);
+                }
+                boxes.add(new Box(box, localRowIndex, localColumnIndex));
+            }
+        }
+        return boxes;
+    }
+}
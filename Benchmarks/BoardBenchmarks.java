@@ -0,0 +1,55 @@
+import org.openjdk.jmh.annotations.*;
+import v2.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Construction and solving of single {@link Board}s over the fixtures of {@link BoardUtils}.
+ * Throughput gives boards per millisecond and the sample mode the latency percentiles of one solve.
+ * A solve runs between a checkpoint and a rollback of one board, so the board is built once per
+ * trial and {@link #construct()} is measured on its own.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoardBenchmarks {
+
+    @Param({"simpleBoard1", "simpleBoard2", "simpleBoard3", "simpleBoard4", "hardBoard", "expertBoard",
+            "evilBoard", "bigBoard", "giantBoard1", "giantBoard2"})
+    public String fixture;
+
+    private int[][] intBoard;
+    private Board board;
+    private SearchLimits limits;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        intBoard = BenchmarkFixtures.fixture(fixture);
+        board = new Board(intBoard);
+        limits = new SearchLimits(100_000, TimeUnit.SECONDS.toNanos(10));
+    }
+
+    @Benchmark
+    public Board construct() {
+        return new Board(intBoard);
+    }
+
+    @Benchmark
+    public boolean solve() {
+        board.checkpoint();
+        boolean solved = board.solve();
+        board.rollback();
+        return solved;
+    }
+
+    @Benchmark
+    public SolveResult solveWithSearch() {
+        board.checkpoint();
+        SolveResult result = board.solveWithSearch(limits);
+        board.rollback();
+        return result;
+    }
+}
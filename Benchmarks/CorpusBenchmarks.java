@@ -0,0 +1,61 @@
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import v2.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Solves a generated corpus of puzzles per size, see {@link BenchmarkFixtures#corpus(int, int)},
+ * with the strategies of {@link Board} and with the engines of a {@link SolverContext}.
+ * One operation is the whole corpus.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CorpusBenchmarks {
+
+    @Param({"9", "16", "25"})
+    public int size;
+
+    @Param({"16"})
+    public int corpusSize;
+
+    private int[][][] corpus;
+    private Puzzle[] puzzles;
+    private SolverContext context;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        corpus = BenchmarkFixtures.corpus(size, corpusSize);
+        puzzles = new Puzzle[corpus.length];
+        for (int i = 0; i < corpus.length; i++) {
+            puzzles[i] = Puzzle.of(corpus[i]);
+        }
+        context = new SolverContext(size);
+    }
+
+    @Benchmark
+    public void boardSolve(Blackhole blackhole) {
+        for (int[][] intBoard : corpus) {
+            Board board = new Board(intBoard);
+            blackhole.consume(board.solve());
+        }
+    }
+
+    @Benchmark
+    public void contextSolveWithStrategies(Blackhole blackhole) {
+        for (Puzzle puzzle : puzzles) {
+            blackhole.consume(context.solveWithStrategies(puzzle));
+        }
+    }
+
+    @Benchmark
+    public void contextSolve(Blackhole blackhole) {
+        for (Puzzle puzzle : puzzles) {
+            blackhole.consume(context.solve(puzzle));
+        }
+    }
+}
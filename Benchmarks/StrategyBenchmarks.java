@@ -0,0 +1,143 @@
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import v2.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The strategy methods of {@link Line} and {@link Box}, each run on every row or every box of a
+ * fixture, with the options the givens leave. The strategies eliminate options, so the units are
+ * rebuilt before every invocation; one invocation covers a whole board to keep the setup small
+ * next to the measured work.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StrategyBenchmarks {
+
+    @Param({"simpleBoard1", "simpleBoard2", "simpleBoard3", "simpleBoard4", "hardBoard", "expertBoard",
+            "evilBoard", "bigBoard", "giantBoard1", "giantBoard2"})
+    public String fixture;
+
+    private Board board;
+    private int size;
+    private List<Row> rows;
+    private List<Box> boxes;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        int[][] intBoard = BenchmarkFixtures.fixture(fixture);
+        size = intBoard.length;
+        board = new Board(intBoard);
+    }
+
+    @Setup(Level.Invocation)
+    public void buildUnits() {
+        Cell[][] cells = BenchmarkFixtures.detachedCells(board, size, new EliminationCounter());
+        rows = BenchmarkFixtures.rows(cells);
+        boxes = BenchmarkFixtures.boxes(cells);
+    }
+
+    @Benchmark
+    public void lineNakedSingles(Blackhole blackhole) {
+        for (Row row : rows) {
+            blackhole.consume(row.getNakedSingles());
+        }
+    }
+
+    @Benchmark
+    public void lineHiddenSingles(Blackhole blackhole) {
+        for (Row row : rows) {
+            blackhole.consume(row.getHiddenSingles());
+        }
+    }
+
+    @Benchmark
+    public void lineNakedPairs(Blackhole blackhole) {
+        for (Row row : rows) {
+            blackhole.consume(row.getNakedPairs());
+        }
+    }
+
+    @Benchmark
+    public void lineHiddenPairs(Blackhole blackhole) {
+        for (Row row : rows) {
+            blackhole.consume(row.getHiddenPairs());
+        }
+    }
+
+    @Benchmark
+    public void lineNakedTriple(Blackhole blackhole) {
+        for (Row row : rows) {
+            blackhole.consume(row.getNakedTriple());
+        }
+    }
+
+    @Benchmark
+    public void lineNakedQuad(Blackhole blackhole) {
+        for (Row row : rows) {
+            blackhole.consume(row.getNakedQuad());
+        }
+    }
+
+    @Benchmark
+    public void lineClaimingPairs(Blackhole blackhole) {
+        for (Row row : rows) {
+            blackhole.consume(row.lookForHorizontalClaimingPair());
+        }
+    }
+
+    @Benchmark
+    public void boxNakedSingles(Blackhole blackhole) {
+        for (Box box : boxes) {
+            blackhole.consume(box.getNakedSingles());
+        }
+    }
+
+    @Benchmark
+    public void boxHiddenSingles(Blackhole blackhole) {
+        for (Box box : boxes) {
+            blackhole.consume(box.getHiddenSingles());
+        }
+    }
+
+    @Benchmark
+    public void boxNakedPairs(Blackhole blackhole) {
+        for (Box box : boxes) {
+            blackhole.consume(box.getNakedPairs());
+        }
+    }
+
+    @Benchmark
+    public void boxHiddenPairs(Blackhole blackhole) {
+        for (Box box : boxes) {
+            blackhole.consume(box.getHiddenPairs());
+        }
+    }
+
+    @Benchmark
+    public void boxNakedTriple(Blackhole blackhole) {
+        for (Box box : boxes) {
+            blackhole.consume(box.getNakedTriple());
+        }
+    }
+
+    @Benchmark
+    public void boxNakedQuad(Blackhole blackhole) {
+        for (Box box : boxes) {
+            blackhole.consume(box.getNakedQuad());
+        }
+    }
+
+    @Benchmark
+    public void boxPointingPairs(Blackhole blackhole) {
+        for (Box box : boxes) {
+            blackhole.consume(box.lookForVerticalPointingPair());
+            blackhole.consume(box.lookForHorizontalPointingPair());
+        }
+    }
+}
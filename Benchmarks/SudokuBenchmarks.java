@@ -0,0 +1,27 @@
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks of this directory with the GC profiler, the same as "-prof gc" on the JMH
+ * command line, so every result comes with its allocation rate (gc.alloc.rate.norm is bytes per
+ * operation) next to its time, and writes them as JSON.
+ * Keep the JSON of a run as the baseline and compare the next run against it after an engine change.
+ * Needs jmh-core and jmh-generator-annprocess on the class path next to the sources and Tests.
+ * Arguments: [regular expression of the benchmarks to run] [result file]
+ */
+public class SudokuBenchmarks {
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(args.length > 0 ? args[0] : "(Board|Corpus|Strategy)Benchmarks")
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result(args.length > 1 ? args[1] : "benchmarks.json")
+                .build();
+        new Runner(options).run();
+    }
+}
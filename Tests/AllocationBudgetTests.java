@@ -0,0 +1,147 @@
+import com.sun.management.ThreadMXBean;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+import v2.*;
+
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+
+/**
+ * Bytes allocated by the current thread per operation, after a warm-up so the JIT already compiled
+ * (and scalar replaced what it can of) the measured code. An operation allocating more than its
+ * budget fails the test, the zero budgets are for the engines that reuse all their arrays.
+ */
+public class AllocationBudgetTests {
+
+    private static final int WARMUP_OPERATIONS = 3000;
+    private static final int MEASURED_OPERATIONS = 200;
+    // allowance for the whole measured run, for the bytes the measurement itself may allocate
+    private static final long MEASUREMENT_SLACK = 1024;
+
+    // measured bytes per operation plus about 10%, the rest of a solve allocates nothing per unit
+    private static final long HARD_BOARD_SOLVE_BUDGET = 5500;
+    private static final long EVIL_BOARD_SOLVE_BUDGET = 8200;
+    private static final long BIG_BOARD_SOLVE_BUDGET = 7500;
+    private static final long GIANT_BOARD_SOLVE_BUDGET = 12400;
+    private static final long EVIL_BOARD_SEARCH_BUDGET = 14600;
+    private static final long BIG_BOARD_SEARCH_BUDGET = 33200;
+
+    private ThreadMXBean threads;
+
+    @Before
+    public void init(){
+        threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue("Thread allocation counting is supported", threads.isThreadAllocatedMemorySupported());
+        threads.setThreadAllocatedMemoryEnabled(true);
+    }
+
+    private long allocatedBytes(){
+        return threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    private void assertBudget(String name, long bytesPerOperation, Runnable operation){
+        for (int i = 0; i < WARMUP_OPERATIONS; i++) {
+            operation.run();
+        }
+        long start = allocatedBytes();
+        for (int i = 0; i < MEASURED_OPERATIONS; i++) {
+            operation.run();
+        }
+        long allocated = allocatedBytes() - start;
+        long budget = bytesPerOperation * MEASURED_OPERATIONS + MEASUREMENT_SLACK;
+        Assert.assertTrue(name + " allocated " + allocated / MEASURED_OPERATIONS + " bytes per operation, the budget is " + bytesPerOperation,
+                allocated <= budget);
+    }
+
+    private void assertBoardSolveBudget(int[][] intBoard, long bytesPerSolve){
+        Board board = new Board(intBoard);
+        assertBudget("Board.solve() " + intBoard.length + "x" + intBoard.length, bytesPerSolve, () -> {
+            board.checkpoint();
+            board.solve();
+            board.rollback();
+        });
+    }
+
+    private void assertBoardSearchBudget(int[][] intBoard, long bytesPerSearch){
+        Board board = new Board(intBoard);
+        Assert.assertFalse("The strategies alone stall", new Board(intBoard).solve());
+        assertBudget("Board.solveWithSearch() " + intBoard.length + "x" + intBoard.length, bytesPerSearch, () -> {
+            board.checkpoint();
+            board.solveWithSearch(SearchLimits.UNLIMITED);
+            board.rollback();
+        });
+        Assert.assertTrue("The search guessed", board.getSearchNodes() > 0);
+    }
+
+    /**
+     * The big board without five givens of its first row, which the strategies can't solve alone.
+     */
+    private int[][] bigBoardForSearch(){
+        int[][] intBoard = new int[16][];
+        for (int row = 0; row < 16; row++) {
+            intBoard[row] = BoardUtils.bigBoard[row].clone();
+        }
+        for (int column : new int[]{0, 3, 4, 8, 10}) {
+            intBoard[0][column] = 0;
+        }
+        return intBoard;
+    }
+
+    @Test
+    public void boardSolveTest(){
+        assertBoardSolveBudget(BoardUtils.hardBoard, HARD_BOARD_SOLVE_BUDGET);
+        assertBoardSolveBudget(BoardUtils.evilBoard, EVIL_BOARD_SOLVE_BUDGET);
+        assertBoardSolveBudget(BoardUtils.bigBoard, BIG_BOARD_SOLVE_BUDGET);
+        assertBoardSolveBudget(BoardUtils.giantBoard1, GIANT_BOARD_SOLVE_BUDGET);
+    }
+
+    @Test
+    public void boardSearchTest(){
+        assertBoardSearchBudget(BoardUtils.evilBoard, EVIL_BOARD_SEARCH_BUDGET);
+        assertBoardSearchBudget(bigBoardForSearch(), BIG_BOARD_SEARCH_BUDGET);
+    }
+
+    @Test
+    public void solverContextTest(){
+        int[][][] boards = {BoardUtils.hardBoard, BoardUtils.bigBoard, BoardUtils.giantBoard1};
+        for (int[][] intBoard : boards) {
+            Puzzle puzzle = Puzzle.of(intBoard);
+            SolverContext context = new SolverContext(puzzle.size());
+            int[] cells = puzzle.toCells();
+            int[] work = new int[cells.length];
+            String name = " " + puzzle.size() + "x" + puzzle.size();
+            assertBudget("SolverContext.solve()" + name, 0, () -> context.solve(puzzle));
+            assertBudget("SolverContext.solveWithStrategies()" + name, 0, () -> context.solveWithStrategies(puzzle));
+            assertBudget("SolverContext.solve(cells, offset)" + name, 0, () -> {
+                System.arraycopy(cells, 0, work, 0, cells.length);
+                context.solve(work, 0);
+            });
+        }
+    }
+
+    @Test
+    public void generatorsTest(){
+        SudokuGridGenerator generator = new SudokuGridGenerator(5);
+        int[] grid = new int[625];
+        assertBudget("SudokuGridGenerator.generateGrid() 25x25", 0, () -> generator.generateGrid(25, grid));
+        int[][] seedGrids = {BoardUtils.toCells(new DancingLinks(9).solve(BoardUtils.hardBoard))};
+        GridTransformer transformer = new GridTransformer(9, seedGrids, 5);
+        int[] target = new int[81];
+        assertBudget("GridTransformer.next() 9x9", 0, () -> transformer.next(target));
+    }
+
+    @Test
+    public void packedGridCodecTest(){
+        int[] cells = BoardUtils.toCells(BoardUtils.giantBoard1);
+        int[] target = new int[cells.length];
+        ByteBuffer buffer = ByteBuffer.allocate(1024);
+        assertBudget("PackedGridCodec 25x25", 0, () -> {
+            buffer.clear();
+            PackedGridCodec.write(buffer, cells, 25, true);
+            buffer.flip();
+            PackedGridCodec.read(buffer, target);
+        });
+    }
+}
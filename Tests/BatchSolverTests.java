@@ -0,0 +1,68 @@
+import org.junit.Assert;
+import org.junit.Test;
+import v2.*;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+public class BatchSolverTests {
+
+    private final List<int[][]> boards = List.of(BoardUtils.simpleBoard1, BoardUtils.hardBoard, BoardUtils.evilBoard,
+            BoardUtils.bigBoard, BoardUtils.giantBoard1, BoardUtils.expertBoard);
+
+    @Test
+    public void solveAllInOrderTest(){
+        List<BatchSolver.Result> results = new BatchSolver().solveAll(boards);
+        Assert.assertEquals("Result per board", boards.size(), results.size());
+        for (int i = 0; i < boards.size(); i++) {
+            Assert.assertEquals("Index of result " + i, i, results.get(i).index());
+            Assert.assertEquals("Result " + i, SolveResult.SOLVED, results.get(i).result());
+            Assert.assertArrayEquals("Solution " + i, new DancingLinks(boards.get(i).length).solve(boards.get(i)), results.get(i).solution());
+        }
+    }
+
+    @Test
+    public void solveAllStreamTest(){
+        int[][] unsolvable = new int[9][9];
+        unsolvable[0][0] = 1;
+        unsolvable[0][1] = 1;
+        ConcurrentHashMap<Integer, BatchSolver.Result> results = new ConcurrentHashMap<>();
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            BatchSolver.Report report = new BatchSolver(pool).solveAll(
+                    Stream.concat(boards.stream(), Stream.<int[][]>of(unsolvable)),
+                    result -> results.put(result.index(), result));
+            Assert.assertEquals("Boards in the report", boards.size() + 1, report.boards());
+            Assert.assertEquals("Solved boards in the report", boards.size(), report.solved());
+        } finally {
+            pool.shutdown();
+        }
+        Assert.assertEquals("Result per board", boards.size() + 1, results.size());
+        Assert.assertEquals("Unsolvable board", SolveResult.UNSOLVABLE, results.get(boards.size()).result());
+        Assert.assertNull("No solution", results.get(boards.size()).solution());
+    }
+
+    @Test
+    public void solveAllStreamReadsAheadBoundedTest(){
+        AtomicInteger read = new AtomicInteger();
+        AtomicInteger consumed = new AtomicInteger();
+        AtomicInteger maxReadAhead = new AtomicInteger();
+        ForkJoinPool pool = new ForkJoinPool(1);
+        try {
+            BatchSolver.Report report = new BatchSolver(pool).solveAll(
+                    Stream.generate(() -> {
+                        maxReadAhead.accumulateAndGet(read.incrementAndGet() - consumed.get(), Math::max);
+                        return BoardUtils.simpleBoard1;
+                    }).limit(256 * 20),
+                    result -> consumed.incrementAndGet());
+            Assert.assertEquals("Boards in the report", 256 * 20, report.boards());
+        } finally {
+            pool.shutdown();
+        }
+        Assert.assertEquals("Result per board", 256 * 20, consumed.get());
+        Assert.assertTrue("Read ahead " + maxReadAhead.get() + " boards", maxReadAhead.get() <= 256 * 3);
+    }
+}
@@ -0,0 +1,89 @@
+import org.junit.Assert;
+import org.junit.Test;
+import v2.*;
+
+import java.nio.ByteBuffer;
+
+public class BoardBatchTests {
+
+    @Test
+    public void solveAllTest(){
+        int[][] unsolvable = new int[9][9];
+        unsolvable[0][0] = 1;
+        unsolvable[1][1] = 1;
+        int[][][] boards = {BoardUtils.simpleBoard1, BoardUtils.evilBoard, unsolvable, BoardUtils.hardBoard};
+        BoardBatch batch = new BoardBatch(9, 200);
+        for (int i = 0; i < 50; i++) {
+            for (int[][] intBoard : boards) {
+                batch.add(intBoard);
+            }
+        }
+        BatchSolver.Report report = batch.solveAll();
+        Assert.assertEquals("Boards", 200, report.boards());
+        Assert.assertEquals("Solved boards", 150, report.solved());
+        for (int board = 0; board < batch.count(); board++) {
+            int[][] expected = new DancingLinks(9).solve(boards[board % boards.length]);
+            Assert.assertEquals("Solved " + board, expected != null, batch.isSolved(board));
+            Assert.assertArrayEquals("Board " + board, expected != null ? expected : unsolvable, batch.toIntBoard(board));
+        }
+    }
+
+    @Test
+    public void packedTest(){
+        BoardBatch batch = new BoardBatch(25, 2);
+        batch.add(BoardUtils.giantBoard1);
+        batch.add(BoardUtils.giantBoard2);
+        ByteBuffer buffer = ByteBuffer.allocateDirect(1024);
+        batch.writePacked(0, buffer, true);
+        batch.writePacked(1, buffer, false);
+        buffer.flip();
+        BoardBatch copy = new BoardBatch(25, 2);
+        copy.readPacked(buffer);
+        copy.readPacked(buffer);
+        Assert.assertArrayEquals("First board", BoardUtils.giantBoard1, copy.toIntBoard(0));
+        Assert.assertArrayEquals("Second board", BoardUtils.giantBoard2, copy.toIntBoard(1));
+        copy.set(1, 0, 0, 7);
+        Assert.assertEquals("Value set in place", 7, copy.cells()[copy.offset(1)]);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void capacityTest(){
+        BoardBatch batch = new BoardBatch(4, 1);
+        batch.add(BoardUtils.miniBoard);
+        batch.add(BoardUtils.miniBoard);
+    }
+
+    @Test
+    public void raggedBoardTest(){
+        BoardBatch batch = new BoardBatch(9, 2);
+        batch.add(BoardUtils.hardBoard);
+        int[][] ragged = BoardUtils.toIntBoard(BoardUtils.toCells(BoardUtils.evilBoard), 9);
+        ragged[8] = new int[5];
+        try {
+            batch.add(ragged);
+            Assert.fail("A short row is rejected");
+        } catch (IllegalArgumentException e) {
+            Assert.assertEquals("The rejected board isn't counted", 1, batch.count());
+        }
+    }
+
+    @Test
+    public void illegalValueTest(){
+        BoardBatch batch = new BoardBatch(9, 2);
+        int[][] intBoard = BoardUtils.toIntBoard(BoardUtils.toCells(BoardUtils.hardBoard), 9);
+        intBoard[4][4] = 12;
+        try {
+            batch.add(intBoard);
+            Assert.fail("12 is rejected on a 9x9 board");
+        } catch (IllegalArgumentException ignored) {
+        }
+        try {
+            batch.add(BoardUtils.toCells(intBoard), 0);
+            Assert.fail("12 is rejected on a 9x9 board");
+        } catch (IllegalArgumentException ignored) {
+        }
+        Assert.assertEquals("No board was added", 0, batch.count());
+        batch.add(BoardUtils.hardBoard);
+        Assert.assertEquals("Batch still solves", 1, batch.solveAll().solved());
+    }
+}
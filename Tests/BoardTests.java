@@ -0,0 +1,168 @@
+import org.junit.Assert;
+import org.junit.Test;
+import v2.*;
+
+import java.util.List;
+
+public class BoardTests {
+
+    private void assertSameCells(String message, Board expected, Board actual, int size) {
+        for (int row = 0; row < size; row++) {
+            for (int column = 0; column < size; column++) {
+                Assert.assertEquals(message + " value at [" + row + "," + column + "]", expected.getCell(row, column).getValue(), actual.getCell(row, column).getValue());
+                Assert.assertEquals(message + " options at [" + row + "," + column + "]", expected.getCell(row, column).getOptionsMask(), actual.getCell(row, column).getOptionsMask());
+            }
+        }
+    }
+
+    @Test
+    public void rollbackAfterSolveTest(){
+        Board board = new Board(BoardUtils.simpleBoard1);
+        Board untouched = new Board(BoardUtils.simpleBoard1);
+        board.checkpoint();
+        Assert.assertTrue("Board is solved", board.solve());
+        board.rollback();
+        assertSameCells("After rollback", untouched, board, 9);
+    }
+
+    @Test
+    public void nestedCheckpointsTest(){
+        Board board = new Board(BoardUtils.simpleBoard1);
+        board.checkpoint();
+        Assert.assertTrue("3 is an option of [0,1]", board.place(0, 1, 3));
+        Board afterPlace = new Board(BoardUtils.simpleBoard1);
+        afterPlace.place(0, 1, 3);
+        board.checkpoint();
+        board.solve();
+        board.rollback();
+        assertSameCells("After inner rollback", afterPlace, board, 9);
+        board.rollback();
+        assertSameCells("After outer rollback", new Board(BoardUtils.simpleBoard1), board, 9);
+    }
+
+    @Test
+    public void removeClueTest(){
+        Board board = new Board(BoardUtils.simpleBoard1);
+        board.checkpoint();
+        board.removeClue(0, 0);
+        int[][] withoutClue = board.toIntBoard();
+        Assert.assertEquals("Removed clue", 0, withoutClue[0][0]);
+        assertSameCells("After removing the clue", new Board(withoutClue), board, 9);
+        board.rollback();
+        assertSameCells("After rollback", new Board(BoardUtils.simpleBoard1), board, 9);
+    }
+
+    @Test
+    public void solveWithSearchTest(){
+        Board board = new Board(BoardUtils.evilBoard);
+        Assert.assertFalse("Strategies alone stall on the evil board", new Board(BoardUtils.evilBoard).solve());
+        Assert.assertEquals("Search result", SolveResult.SOLVED, board.solveWithSearch(SearchLimits.UNLIMITED));
+        Assert.assertEquals("No empty cells", 0, BoardUtils.countEmptyCells(board.toIntBoard()));
+        for (int row = 0; row < 9; row++) {
+            for (int column = 0; column < 9; column++) {
+                if(BoardUtils.evilBoard[row][column] != 0){
+                    Assert.assertEquals("Givens are kept", BoardUtils.evilBoard[row][column], board.getCell(row, column).getValue());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void solveWithSearchBudgetTest(){
+        Board board = new Board(BoardUtils.evilBoard);
+        Assert.assertEquals("Search result", SolveResult.BUDGET_EXCEEDED, board.solveWithSearch(new SearchLimits(0, Long.MAX_VALUE)));
+    }
+
+    @Test
+    public void solveWithSearchUnsolvableTest(){
+        int[][] intBoard = new int[9][9];
+        for (int column = 0; column < 8; column++) {
+            intBoard[0][column] = column + 1;
+        }
+        intBoard[4][8] = 9;
+        Board board = new Board(intBoard);
+        Assert.assertEquals("Search result", SolveResult.UNSOLVABLE, board.solveWithSearch(SearchLimits.UNLIMITED));
+    }
+
+    @Test
+    public void metricsTest(){
+        Board board = new Board(BoardUtils.hardBoard);
+        Assert.assertNull("Metrics are off by default", board.getMetrics());
+        board.setMetricsEnabled(true);
+        MetricsRegistry.reset();
+        Assert.assertTrue("Board is solved", board.solve());
+        StrategyMetrics metrics = board.getMetrics();
+        long placements = 0;
+        for (Technique technique : Technique.values()) {
+            placements += metrics.getPlacements(technique);
+        }
+        Assert.assertEquals("Every empty cell was placed by a single", BoardUtils.countEmptyCells(BoardUtils.hardBoard), placements);
+        Assert.assertTrue("Naked pairs were tried", metrics.getCalls(Technique.NAKED_PAIR) > 0);
+        Assert.assertEquals("Registry holds the solve", metrics.getCalls(Technique.NAKED_PAIR), MetricsRegistry.snapshot(9).getCalls(Technique.NAKED_PAIR));
+    }
+
+    @Test
+    public void searchMetricsTest(){
+        Board board = new Board(BoardUtils.evilBoard);
+        board.setMetricsEnabled(true);
+        MetricsRegistry.reset();
+        Assert.assertEquals("Search result", SolveResult.SOLVED, board.solveWithSearch(SearchLimits.UNLIMITED));
+        Assert.assertTrue("The search guessed", board.getSearchNodes() > 0);
+        StrategyMetrics metrics = board.getMetrics();
+        Assert.assertTrue("Naked pairs were tried", metrics.getCalls(Technique.NAKED_PAIR) > 0);
+        Assert.assertEquals("Registry holds the whole search once", metrics.getCalls(Technique.NAKED_PAIR), MetricsRegistry.snapshot(9).getCalls(Technique.NAKED_PAIR));
+    }
+
+    @Test
+    public void eliminationLogTest(){
+        Board board = new Board(BoardUtils.hardBoard);
+        Assert.assertTrue("Counting by default", board.getEliminationSink() instanceof EliminationCounter);
+        EliminationLog log = new EliminationLog();
+        board.setEliminationSink(log);
+        board.checkpoint();
+        Assert.assertTrue("Board is solved", board.solve());
+        Assert.assertTrue("Eliminations were logged", log.count() > 0);
+        List<EliminatedRecord> records = log.toRecords(board);
+        Assert.assertEquals("One record per elimination", log.count(), records.size());
+        for (int index = 0; index < log.count(); index++) {
+            EliminatedRecord record = records.get(index);
+            Assert.assertEquals("Record technique", log.getTechnique(index).getDisplayName(), record.method());
+            Assert.assertSame("Record cell", board.getCell(log.getRow(index), log.getColumn(index)), record.cell());
+            Assert.assertNotEquals("Eliminated value isn't the solution", log.getValue(index), record.cell().getValue());
+        }
+        board.rollback();
+        Assert.assertEquals("Rollback forgets the eliminations", 0, log.count());
+    }
+
+    @Test
+    public void statusTest(){
+        Board board = new Board(BoardUtils.hardBoard);
+        int emptyCells = BoardUtils.countEmptyCells(BoardUtils.hardBoard);
+        Assert.assertEquals("Empty cells", emptyCells, board.getEmptyCellsCount());
+        Assert.assertFalse("No contradiction", board.hasContradiction());
+        board.checkpoint();
+        Assert.assertTrue("Board is solved", board.solve());
+        Assert.assertTrue("Status is solved", board.isSolved());
+        Assert.assertEquals("No empty cells", 0, board.getEmptyCellsCount());
+        board.rollback();
+        Assert.assertEquals("Rollback restores the empty cells", emptyCells, board.getEmptyCellsCount());
+        Assert.assertFalse("Not solved after rollback", board.isSolved());
+
+        int[][] repeated = new int[9][9];
+        repeated[0][0] = 1;
+        repeated[0][8] = 1;
+        Board broken = new Board(repeated);
+        Assert.assertTrue("Repeated number is a contradiction", broken.hasContradiction());
+        Assert.assertFalse("Broken board isn't solved", broken.solve());
+
+        int[][] noPlaceForOne = new int[9][9];
+        noPlaceForOne[1][3] = 1;
+        noPlaceForOne[2][6] = 1;
+        noPlaceForOne[0][0] = 2;
+        noPlaceForOne[0][1] = 3;
+        noPlaceForOne[0][2] = 4;
+        Board stuck = new Board(noPlaceForOne);
+        Assert.assertTrue("1 has no place in the first row", stuck.hasContradiction());
+        Assert.assertEquals("Unsolvable", SolveResult.UNSOLVABLE, stuck.solveWithSearch(new SearchLimits(1000, Long.MAX_VALUE)));
+    }
+}
@@ -5,6 +5,7 @@ import v2.*;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 public class BoxTests {
 
@@ -16,6 +17,7 @@ public class BoxTests {
     Box boxWithHiddenPair;
     Box boxWithNakedTriple;
     Box boxWithNakedQuad;
+    Box boxWithHiddenTriple;
     Box boxWithVerticalPointingPair;
     Box boxWithHorizontalPointingPair;
 
@@ -38,6 +40,7 @@ public class BoxTests {
         initBoxWithHiddenPair();
         initBoxWithNakedTriple();
         initBoxWithNakedQuad();
+        initBoxWithHiddenTriple();
         initBoxWithVerticalPointingPair();
         initBoxWithHorizontalPointingPair();
     }
@@ -62,6 +65,20 @@ public class BoxTests {
         boxWithVerticalPointingPair = new Box(box, 2, 1, eliminatedRecords);
     }
 
+    private void initBoxWithHiddenTriple() {
+        Cell[][] box = initBox();
+        for (int row = 0; row < 3; row++) {
+            for (int column = 0; column < 3; column++) {
+                if(row != column){
+                    box[row][column].addIneligible(2, "Initialization");
+                    box[row][column].addIneligible(3, "Initialization");
+                    box[row][column].addIneligible(7, "Initialization");
+                }
+            }
+        }
+        boxWithHiddenTriple = new Box(box, 0, 0, eliminatedRecords);
+    }
+
     private void initBoxWithNakedQuad() {
         Cell[][] box = initBox();
         // 0 3 6 8
@@ -167,6 +184,20 @@ public class BoxTests {
         Assert.assertEquals("The value of the hidden single", 1, hiddenSingles.get(0).value());
     }
 
+    @Test
+    public void cellWithTwoHiddenNumbersIsNoSingleTest(){
+        Cell[][] box = initBox();
+        for (int row = 0; row < 3; row++) {
+            for (int column = 0; column < 3; column++) {
+                if(row != 0 || column != 0){
+                    box[row][column].addIneligible(1, Technique.INITIALIZATION);
+                    box[row][column].addIneligible(2, Technique.INITIALIZATION);
+                }
+            }
+        }
+        Assert.assertTrue("Two numbers in one cell aren't a single", new Box(box, 0, 0).getHiddenSingles().isEmpty());
+    }
+
     @Test
     public void getNakedPairsTest(){
         List<Cell[]> nakedPairs = boxWithNakedPair.getNakedPairs();
@@ -258,6 +289,17 @@ public class BoxTests {
         }
     }
 
+    @Test
+    public void getHiddenTripleTest(){
+        List<Cell[]> hiddenTriples = boxWithHiddenTriple.getHiddenTriple();
+        Assert.assertEquals("# of hidden triple", 1, hiddenTriples.size());
+        Cell[][] box = boxWithHiddenTriple.getBox();
+        Assert.assertArrayEquals("The hidden triple cells", new Cell[]{box[0][0], box[1][1], box[2][2]}, hiddenTriples.get(0));
+        for (Cell cell : hiddenTriples.get(0)) {
+            Assert.assertEquals("Hidden triple cell options", Set.of(2, 3, 7), cell.getOptions());
+        }
+    }
+
     @Test
     public void lookForVerticalPointingPairTest(){
         List<PointingPairRecord> pointingPairs = boxWithVerticalPointingPair.lookForVerticalPointingPair();
@@ -0,0 +1,105 @@
+import org.junit.Assert;
+import org.junit.Test;
+import v2.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+public class CorpusSolverTests {
+
+    private String compactLine(int[][] intBoard) {
+        StringBuilder sb = new StringBuilder();
+        for (int[] row : intBoard) {
+            for (int value : row) {
+                sb.append(value == 0 ? "." : String.valueOf(value));
+            }
+        }
+        return sb.toString();
+    }
+
+    private String delimitedLine(int[][] intBoard, String delimiter) {
+        StringBuilder sb = new StringBuilder();
+        for (int[] row : intBoard) {
+            for (int value : row) {
+                if(sb.length() != 0)
+                    sb.append(delimiter);
+                sb.append(value);
+            }
+        }
+        return sb.toString();
+    }
+
+    @Test
+    public void solveCorpusTest() throws IOException {
+        Path input = Files.createTempFile("corpus", ".txt");
+        Path output = Files.createTempFile("solutions", ".txt");
+        try {
+            int[][] unsolvable = new int[9][9];
+            unsolvable[0][0] = 1;
+            unsolvable[0][1] = 1;
+            Files.write(input, List.of(
+                    "# corpus",
+                    compactLine(BoardUtils.evilBoard),
+                    delimitedLine(BoardUtils.bigBoard, " "),
+                    "",
+                    compactLine(unsolvable),
+                    delimitedLine(BoardUtils.giantBoard1, ",") + "\r",
+                    delimitedLine(BoardUtils.hardBoard, ";")));
+            BatchSolver.Report report = new CorpusSolver().solve(input, output);
+            Assert.assertEquals("Boards", 5, report.boards());
+            Assert.assertEquals("Solved boards", 4, report.solved());
+            List<String> lines = Files.readAllLines(output);
+            Assert.assertEquals("Line per board", 5, lines.size());
+            Assert.assertEquals("Evil board", compactLine(new DancingLinks(9).solve(BoardUtils.evilBoard)), lines.get(0));
+            Assert.assertEquals("Big board", delimitedLine(new DancingLinks(16).solve(BoardUtils.bigBoard), " "), lines.get(1));
+            Assert.assertEquals("Unsolvable board", compactLine(unsolvable).replace('.', '0'), lines.get(2));
+            Assert.assertEquals("Giant board", delimitedLine(new DancingLinks(25).solve(BoardUtils.giantBoard1), ","), lines.get(3));
+            Assert.assertEquals("Delimited 9x9 board", delimitedLine(new DancingLinks(9).solve(BoardUtils.hardBoard), ";"), lines.get(4));
+        } finally {
+            Files.deleteIfExists(input);
+            Files.deleteIfExists(output);
+        }
+    }
+
+    @Test
+    public void skipDelimitersOnlyLinesTest() throws IOException {
+        Path input = Files.createTempFile("corpus", ".txt");
+        Path output = Files.createTempFile("solutions", ".txt");
+        try {
+            Files.write(input, List.of(
+                    " \t ",
+                    compactLine(BoardUtils.hardBoard),
+                    " \r",
+                    ",;"));
+            BatchSolver.Report report = new CorpusSolver().solve(input, output);
+            Assert.assertEquals("Boards", 1, report.boards());
+            Assert.assertEquals("Solved boards", 1, report.solved());
+            Assert.assertEquals("Hard board", List.of(compactLine(new DancingLinks(9).solve(BoardUtils.hardBoard))), Files.readAllLines(output));
+        } finally {
+            Files.deleteIfExists(input);
+            Files.deleteIfExists(output);
+        }
+    }
+
+    @Test
+    public void compactLineWithDelimitersAroundTest() throws IOException {
+        Path input = Files.createTempFile("corpus", ".txt");
+        Path output = Files.createTempFile("solutions", ".txt");
+        try {
+            Files.write(input, List.of(
+                    compactLine(BoardUtils.hardBoard) + " ",
+                    "\t" + compactLine(BoardUtils.evilBoard) + " \t\r"));
+            BatchSolver.Report report = new CorpusSolver().solve(input, output);
+            Assert.assertEquals("Boards", 2, report.boards());
+            Assert.assertEquals("Solved boards", 2, report.solved());
+            Assert.assertEquals("Compact solutions", List.of(
+                    compactLine(new DancingLinks(9).solve(BoardUtils.hardBoard)),
+                    compactLine(new DancingLinks(9).solve(BoardUtils.evilBoard))), Files.readAllLines(output));
+        } finally {
+            Files.deleteIfExists(input);
+            Files.deleteIfExists(output);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+import org.junit.Assert;
+import org.junit.Test;
+import v2.*;
+
+public class DancingLinksTests {
+
+    @Test
+    public void solveTest(){
+        DancingLinks dancingLinks = new DancingLinks(9);
+        Board searched = new Board(BoardUtils.evilBoard);
+        searched.solveWithSearch(SearchLimits.UNLIMITED);
+        Assert.assertArrayEquals("Same solution as the search", searched.toIntBoard(), dancingLinks.solve(BoardUtils.evilBoard));
+        Assert.assertEquals("Single solution", 1, dancingLinks.countSolutions(BoardUtils.evilBoard, 2));
+    }
+
+    @Test
+    public void solveGiantBoardTest(){
+        int[][] solved = new DancingLinks(25).solve(BoardUtils.giantBoard1);
+        Assert.assertNotNull("Board is solved", solved);
+        Assert.assertEquals("No empty cells", 0, BoardUtils.countEmptyCells(solved));
+        Assert.assertTrue("Solution is valid", new Board(solved).solve());
+    }
+
+    @Test
+    public void countSolutionsTest(){
+        DancingLinks dancingLinks = new DancingLinks(9);
+        Assert.assertEquals("Empty board stops at the limit", 2, dancingLinks.countSolutions(BoardUtils.emptyBoard, 2));
+        int[][] intBoard = new int[9][9];
+        intBoard[0][0] = 5;
+        intBoard[0][8] = 5;
+        Assert.assertEquals("Conflicting givens", 0, dancingLinks.countSolutions(intBoard, 2));
+        Assert.assertEquals("Instance is reusable after a conflict", 1, dancingLinks.countSolutions(BoardUtils.evilBoard, 2));
+    }
+
+    @Test
+    public void solutionCounterTest(){
+        Assert.assertTrue("Hard board is unique", SolutionCounter.isUnique(BoardUtils.hardBoard));
+        Assert.assertTrue("Giant board is unique", SolutionCounter.isUnique(BoardUtils.toCells(BoardUtils.giantBoard1), 25));
+        Assert.assertEquals("Empty board stops at the limit", 2, SolutionCounter.countSolutions(BoardUtils.emptyBoard, 2));
+        Assert.assertSame("Engine is reused", SolutionCounter.engine(9), SolutionCounter.engine(9));
+    }
+}
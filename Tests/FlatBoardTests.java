@@ -0,0 +1,85 @@
+import org.junit.Assert;
+import org.junit.Test;
+import v2.*;
+
+import java.util.List;
+
+public class FlatBoardTests {
+
+    private final List<int[][]> fixtures = List.of(BoardUtils.miniBoard, BoardUtils.emptyBoard, BoardUtils.simpleBoard1,
+            BoardUtils.simpleBoard2, BoardUtils.simpleBoard3, BoardUtils.simpleBoard4, BoardUtils.hardBoard,
+            BoardUtils.expertBoard, BoardUtils.evilBoard, BoardUtils.bigBoard, BoardUtils.giantBoard1, BoardUtils.giantBoard2);
+
+    private void assertGivensKept(String message, int[][] intBoard, FlatBoard board) {
+        for (int row = 0; row < intBoard.length; row++) {
+            for (int column = 0; column < intBoard.length; column++) {
+                if(intBoard[row][column] != 0){
+                    Assert.assertEquals(message, intBoard[row][column], board.getValue(row, column));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void fixturesTest(){
+        for (int index = 0; index < fixtures.size(); index++) {
+            int[][] intBoard = fixtures.get(index);
+            FlatBoard board = new FlatBoard(intBoard);
+            boolean solved = board.solve();
+            Assert.assertEquals("Same result as the board for fixture " + index, new Board(intBoard).solve(), solved);
+            Assert.assertFalse("No contradiction in fixture " + index, board.hasContradiction());
+            assertGivensKept("Givens are kept in fixture " + index, intBoard, board);
+            if(solved){
+                Assert.assertArrayEquals("Solution of fixture " + index, new DancingLinks(intBoard.length).solve(intBoard), board.toIntBoard());
+            }
+        }
+    }
+
+    @Test
+    public void strategiesStallTest(){
+        FlatBoard board = new FlatBoard(BoardUtils.evilBoard);
+        Assert.assertFalse("Strategies stall on the evil board", board.solve());
+        int[][] solution = new DancingLinks(9).solve(BoardUtils.evilBoard);
+        for (int row = 0; row < 9; row++) {
+            for (int column = 0; column < 9; column++) {
+                int value = board.getValue(row, column);
+                if(value != 0){
+                    Assert.assertEquals("Filled values are the solution", solution[row][column], value);
+                }
+                else{
+                    Assert.assertTrue("The solution is an option", Candidates.contains(board.getOptionsMask(row, column), solution[row][column]));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void resetReuseTest(){
+        FlatBoard board = new FlatBoard(9);
+        board.reset(BoardUtils.toCells(BoardUtils.evilBoard));
+        Assert.assertFalse("Strategies stall on the evil board", board.solve());
+        board.reset(BoardUtils.toCells(BoardUtils.hardBoard));
+        assertGivensKept("Givens of the second puzzle", BoardUtils.hardBoard, board);
+        Assert.assertEquals("Only the givens after reset", BoardUtils.countEmptyCells(BoardUtils.hardBoard), BoardUtils.countEmptyCells(board.toIntBoard()));
+        Assert.assertTrue("Reused board solves the hard board", board.solve());
+        Assert.assertArrayEquals("Same solution as a new board", new DancingLinks(9).solve(BoardUtils.hardBoard), board.toIntBoard());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void resetWrongSizeTest(){
+        new FlatBoard(9).reset(BoardUtils.toCells(BoardUtils.bigBoard));
+    }
+
+    @Test
+    public void contradictionTest(){
+        int[][] intBoard = new int[9][9];
+        for (int column = 0; column < 8; column++) {
+            intBoard[0][column] = column + 1;
+        }
+        intBoard[4][8] = 9;
+        FlatBoard board = new FlatBoard(intBoard);
+        Assert.assertTrue("The last cell of the first row has no option", board.hasContradiction());
+        Assert.assertFalse("Board isn't solved", board.solve());
+        Assert.assertTrue("Still a contradiction", board.hasContradiction());
+    }
+}
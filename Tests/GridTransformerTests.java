@@ -0,0 +1,51 @@
+import org.junit.Assert;
+import org.junit.Test;
+import v2.*;
+
+import java.util.Arrays;
+
+public class GridTransformerTests {
+
+    private void assertValidGrid(String message, int[] grid, int size) {
+        Topology topology = Topology.of(size);
+        for (int unit = 0; unit < topology.getUnitCount(); unit++) {
+            boolean[] seen = new boolean[size + 1];
+            for (int position = 0; position < size; position++) {
+                int value = grid[topology.unitCell(unit, position)];
+                Assert.assertTrue(message + " value in range", value >= 1 && value <= size);
+                Assert.assertFalse(message + " " + value + " repeats in unit " + unit, seen[value]);
+                seen[value] = true;
+            }
+        }
+    }
+
+    @Test
+    public void validGridsTest(){
+        for (int size : new int[]{4, 9, 16, 25}) {
+            int[] seedGrid = new SudokuGridGenerator(size).generateGrid(size);
+            GridTransformer transformer = new GridTransformer(size, new int[][]{seedGrid}, 3);
+            int[] buffer = new int[3 * size * size];
+            for (int i = 0; i < 20; i++) {
+                transformer.next(buffer, size * size);
+                assertValidGrid("Grid " + i + " of size " + size, Arrays.copyOfRange(buffer, size * size, 2 * size * size), size);
+            }
+            Assert.assertEquals("Untouched before the offset", 0, buffer[0]);
+            Assert.assertEquals("Untouched after the grid", 0, buffer[buffer.length - 1]);
+        }
+    }
+
+    @Test
+    public void parallelGenerateTest(){
+        int[] seedGrid = new SudokuGridGenerator(1).generateGrid(9);
+        int count = 5000;
+        int[][] grids = new int[count][];
+        new GridTransformer(9, new int[][]{seedGrid}, 5).generate(count, (index, grid) -> grids[index] = grid.clone());
+        int[][] again = new int[count][];
+        new GridTransformer(9, new int[][]{seedGrid}, 5).generate(count, (index, grid) -> again[index] = grid.clone());
+        for (int i = 0; i < count; i++) {
+            assertValidGrid("Grid " + i, grids[i], 9);
+            Assert.assertArrayEquals("Grid " + i + " is reproducible", grids[i], again[i]);
+        }
+        Assert.assertFalse("Grids differ", Arrays.equals(grids[0], grids[1]));
+    }
+}
@@ -5,6 +5,7 @@ import v2.*;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 public class LineTests {
 
@@ -16,6 +17,7 @@ public class LineTests {
     Row rowWithHiddenPair;
     Row rowWithNakedTriple;
     Row rowWithNakedQuad;
+    Row rowWithHiddenTriple;
     Row emptyLine;
 
     Column columnWithNakedSingle;
@@ -36,6 +38,7 @@ public class LineTests {
         initLineWithHiddenPair();
         initLineWithNakedTriple();
         initLineWithNakedQuad();
+        initLineWithHiddenTriple();
     }
 
     private Cell[] createEmptyRow(){
@@ -123,6 +126,18 @@ public class LineTests {
         columnWithNakedTriple = new Column(0, 9, column, eliminatedRecords);
     }
 
+    private void initLineWithHiddenTriple() {
+        Cell[] row = createEmptyRow();
+        for (int index = 0; index < 9; index++) {
+            if(index % 4 != 0){
+                row[index].addIneligible(1, "Initialization");
+                row[index].addIneligible(5, "Initialization");
+                row[index].addIneligible(9, "Initialization");
+            }
+        }
+        rowWithHiddenTriple = new Row(0, 9, row, eliminatedRecords);
+    }
+
     private void initLineWithHiddenPair() {
         Cell[] row = createEmptyRow();
         Cell[] column = createEmptyColumn();
@@ -186,6 +201,21 @@ public class LineTests {
         }
     }
 
+    @Test
+    public void eliminatedRecordsTest(){
+        Cell[] cells = new Cell[9];
+        for (int index = 0; index < 9; index++) {
+            cells[index] = new Cell(0, 9, 0, index, new EliminationCounter());
+        }
+        List<EliminatedRecord> records = new ArrayList<>();
+        new Row(0, 9, cells, records).putNumber(4, 1);
+        Assert.assertEquals("Record per other cell", 8, records.size());
+        for (EliminatedRecord record : records) {
+            Assert.assertEquals("Eliminated value", 1, record.eliminatedValue());
+            Assert.assertEquals("Technique", Technique.PLACEMENT.getDisplayName(), record.method());
+        }
+    }
+
     // Row Tests
 
     /*@Test
@@ -296,6 +326,37 @@ public class LineTests {
         }
     }
 
+    @Test
+    public void getHiddenTripleTest(){
+        List<Cell[]> hiddenTriples = rowWithHiddenTriple.getHiddenTriple();
+        Assert.assertEquals("# of hidden triple", 1, hiddenTriples.size());
+        Cell[] line = rowWithHiddenTriple.getLine();
+        Assert.assertArrayEquals("The hidden triple cells", new Cell[]{line[0], line[4], line[8]}, hiddenTriples.get(0));
+        for (Cell cell : hiddenTriples.get(0)) {
+            Assert.assertEquals("Hidden triple cell options", Set.of(1, 5, 9), cell.getOptions());
+        }
+    }
+
+    @Test
+    public void nakedSubsetOfFiveTest(){
+        Cell[] row = new Cell[16];
+        for (int index = 0; index < 16; index++) {
+            row[index] = new Cell(0, 16, 0, index, eliminatedRecords);
+            for (int number = 6; index < 5 && number <= 16; number++) {
+                row[index].addIneligible(number, Technique.INITIALIZATION);
+            }
+        }
+        SubsetFinder subsets = new Row(0, 16, row, eliminatedRecords).getSubsetFinder();
+        Assert.assertEquals("# of naked subsets of 4", 0, subsets.findNaked(4));
+        Assert.assertEquals("# of naked subsets of 5", 1, subsets.findNaked(5));
+        Assert.assertEquals("The subset cells", 0b11111L, subsets.getFoundCells(0));
+        subsets.eliminateNaked(Technique.NAKED_SUBSET);
+        for (int index = 5; index < 16; index++) {
+            Assert.assertEquals("Other cells # of options", 11, row[index].getOptionsCount());
+            Assert.assertFalse("Other cells not contains 3", row[index].hasOption(3));
+        }
+    }
+
     // Column Tests
 
     /*@Test
@@ -0,0 +1,69 @@
+import org.junit.Assert;
+import org.junit.Test;
+import v2.*;
+
+import java.nio.ByteBuffer;
+
+public class PackedGridCodecTests {
+
+    @Test
+    public void bitsPerCellTest(){
+        Assert.assertEquals("9x9", 4, PackedGridCodec.bitsPerCell(9));
+        Assert.assertEquals("16x16", 5, PackedGridCodec.bitsPerCell(16));
+        Assert.assertEquals("25x25", 5, PackedGridCodec.bitsPerCell(25));
+        Assert.assertEquals("36x36", 6, PackedGridCodec.bitsPerCell(36));
+    }
+
+    @Test
+    public void roundTripTest(){
+        int[][][] boards = {BoardUtils.miniBoard, BoardUtils.hardBoard, BoardUtils.emptyBoard, BoardUtils.bigBoard,
+                BoardUtils.giantBoard1, new DancingLinks(25).solve(BoardUtils.giantBoard2)};
+        ByteBuffer buffer = ByteBuffer.allocate(1 << 14);
+        int expectedLength = 0;
+        for (int[][] intBoard : boards) {
+            int size = intBoard.length;
+            PackedGridCodec.write(buffer, intBoard, false);
+            PackedGridCodec.write(buffer, intBoard, true);
+            int[] cells = BoardUtils.toCells(intBoard);
+            expectedLength += PackedGridCodec.encodedLength(cells, size, false) + PackedGridCodec.encodedLength(cells, size, true);
+        }
+        Assert.assertEquals("Written length", expectedLength, buffer.position());
+        buffer.flip();
+        for (int[][] intBoard : boards) {
+            Assert.assertEquals("Size", intBoard.length, PackedGridCodec.peekSize(buffer));
+            Assert.assertArrayEquals("Without mask", intBoard, PackedGridCodec.read(buffer));
+            Assert.assertArrayEquals("With mask", intBoard, PackedGridCodec.read(buffer));
+        }
+        Assert.assertFalse("Everything was read", buffer.hasRemaining());
+    }
+
+    @Test
+    public void lengthTest(){
+        int[] solution = BoardUtils.toCells(new DancingLinks(25).solve(BoardUtils.giantBoard1));
+        Assert.assertEquals("25x25 solution", PackedGridCodec.HEADER_LENGTH + (625 * 5 + 7) / 8, PackedGridCodec.encodedLength(solution, 25, false));
+        Assert.assertFalse("Mask doesn't pay on a full board", PackedGridCodec.isMaskShorter(solution, 25));
+        Assert.assertTrue("Mask pays on a sparse puzzle", PackedGridCodec.isMaskShorter(BoardUtils.toCells(BoardUtils.evilBoard), 9));
+    }
+
+    @Test
+    public void illegalValueWritesNothingTest(){
+        int[] cells = BoardUtils.toCells(BoardUtils.hardBoard);
+        cells[80] = 10;
+        ByteBuffer buffer = ByteBuffer.allocate(128);
+        buffer.put((byte) 7);
+        try {
+            PackedGridCodec.write(buffer, cells, 9, true);
+            Assert.fail("Illegal value was written");
+        } catch (IllegalArgumentException e) {
+            Assert.assertEquals("Position after the failed write", 1, buffer.position());
+            Assert.assertEquals("Bytes after the position are untouched", 0, buffer.get(1));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void givenWithoutValueTest(){
+        // 4x4 board with a givens mask marking the first cell, whose packed value is 0
+        ByteBuffer buffer = ByteBuffer.wrap(new byte[]{1, 4, 2, 2, 1, 0, 0});
+        PackedGridCodec.read(buffer, new int[16]);
+    }
+}
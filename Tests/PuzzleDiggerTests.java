@@ -0,0 +1,70 @@
+import org.junit.Assert;
+import org.junit.Test;
+import v2.*;
+
+public class PuzzleDiggerTests {
+
+    private final int[][] solution = new DancingLinks(9).solve(BoardUtils.hardBoard);
+
+    private void assertPuzzleOf(String message, int[][] puzzle) {
+        Assert.assertEquals(message + " is unique", 1, SolutionCounter.countSolutions(puzzle, 2));
+        for (int row = 0; row < 9; row++) {
+            for (int column = 0; column < 9; column++) {
+                if(puzzle[row][column] != 0){
+                    Assert.assertEquals(message + " clue at [" + row + "," + column + "]", solution[row][column], puzzle[row][column]);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void randomOrderIsMinimalTest(){
+        int[][] puzzle = new PuzzleDigger(7).dig(solution, PuzzleDigger.RemovalOrder.RANDOM);
+        assertPuzzleOf("Random puzzle", puzzle);
+        for (int row = 0; row < 9; row++) {
+            for (int column = 0; column < 9; column++) {
+                int value = puzzle[row][column];
+                if(value != 0){
+                    puzzle[row][column] = 0;
+                    Assert.assertEquals("Clue at [" + row + "," + column + "] is needed", 2, SolutionCounter.countSolutions(puzzle, 2));
+                    puzzle[row][column] = value;
+                }
+            }
+        }
+    }
+
+    @Test
+    public void budgetKeptCluesTest(){
+        PuzzleDigger digger = new PuzzleDigger(7);
+        digger.dig(solution, PuzzleDigger.RemovalOrder.RANDOM);
+        Assert.assertEquals("No check ran out of budget", 0, digger.getBudgetKeptClues());
+        int[][] puzzle = digger.setCheckLimits(new SearchLimits(1, Long.MAX_VALUE)).dig(solution, PuzzleDigger.RemovalOrder.RANDOM);
+        assertPuzzleOf("Puzzle with tiny check budgets", puzzle);
+        Assert.assertTrue("Clues kept by the budget", digger.getBudgetKeptClues() > 0);
+        Assert.assertTrue("Kept clues are clues", digger.getBudgetKeptClues() <= 81 - BoardUtils.countEmptyCells(puzzle));
+    }
+
+    @Test
+    public void symmetricOrderTest(){
+        int[][] puzzle = new PuzzleDigger(7).dig(solution, PuzzleDigger.RemovalOrder.SYMMETRIC);
+        assertPuzzleOf("Symmetric puzzle", puzzle);
+        for (int row = 0; row < 9; row++) {
+            for (int column = 0; column < 9; column++) {
+                Assert.assertEquals("Rotated clue at [" + row + "," + column + "]", puzzle[row][column] == 0, puzzle[8 - row][8 - column] == 0);
+            }
+        }
+    }
+
+    @Test
+    public void strategyConstrainedOrderTest(){
+        int[] progress = new int[2];
+        int[][] puzzle = new PuzzleDigger(7).setProgressListener((cellsTried, cellsCount, cluesLeft) -> {
+            progress[0] = cellsTried;
+            progress[1] = cluesLeft;
+        }).dig(solution, PuzzleDigger.RemovalOrder.STRATEGY_CONSTRAINED);
+        assertPuzzleOf("Strategy constrained puzzle", puzzle);
+        Assert.assertTrue("Strategies solve the puzzle", new Board(puzzle).solve());
+        Assert.assertEquals("Every cell was tried", 81, progress[0]);
+        Assert.assertEquals("Clues left", 81 - BoardUtils.countEmptyCells(puzzle), progress[1]);
+    }
+}
@@ -0,0 +1,86 @@
+import org.junit.Assert;
+import org.junit.Test;
+import v2.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class SolverContextTests {
+
+    @Test
+    public void puzzleIsImmutableTest(){
+        int[][] intBoard = BoardUtils.toIntBoard(BoardUtils.toCells(BoardUtils.hardBoard), 9);
+        Puzzle puzzle = Puzzle.of(intBoard);
+        intBoard[0][0] = 9 - intBoard[0][0];
+        Assert.assertEquals("Puzzle keeps its givens", BoardUtils.hardBoard[0][0], puzzle.getGiven(0, 0));
+        puzzle.toIntBoard()[0][0] = 0;
+        Assert.assertEquals("Copies don't change the puzzle", Puzzle.of(BoardUtils.hardBoard), puzzle);
+        Assert.assertEquals("Givens count", 81 - BoardUtils.countEmptyCells(BoardUtils.hardBoard), puzzle.getGivensCount());
+    }
+
+    @Test
+    public void reuseContextTest(){
+        SolverContext context = new SolverContext(9);
+        Assert.assertEquals("Evil board", SolveResult.SOLVED, context.solve(Puzzle.of(BoardUtils.evilBoard)));
+        Assert.assertArrayEquals("Evil board solution", new DancingLinks(9).solve(BoardUtils.evilBoard), context.getSolution());
+        Assert.assertFalse("Strategies stall on the evil board", context.solveWithStrategies(Puzzle.of(BoardUtils.evilBoard)));
+        Assert.assertTrue("Strategies solve the simple board", context.solveWithStrategies(Puzzle.of(BoardUtils.simpleBoard1)));
+        int[][] strategiesSolution = context.getSolution();
+        Assert.assertEquals("Simple board", SolveResult.SOLVED, context.solve(Puzzle.of(BoardUtils.simpleBoard1)));
+        Assert.assertArrayEquals("Same solution both ways", strategiesSolution, context.getSolution());
+        int[][] unsolvable = new int[9][9];
+        unsolvable[0][0] = 1;
+        unsolvable[1][1] = 1;
+        Assert.assertEquals("Unsolvable board", SolveResult.UNSOLVABLE, context.solve(Puzzle.of(unsolvable)));
+    }
+
+    @Test
+    public void strategiesResultTest(){
+        SolverContext context = new SolverContext(9);
+        Assert.assertFalse("Strategies stall on the evil board", context.solveWithStrategies(Puzzle.of(BoardUtils.evilBoard)));
+        Assert.assertEquals("Evil board", SolveResult.STALLED, context.getLastResult());
+        int[][] contradiction = new int[9][9];
+        for (int column = 0; column < 8; column++) {
+            contradiction[0][column] = column + 1;
+        }
+        contradiction[4][8] = 9;
+        Assert.assertFalse("No solution", context.solveWithStrategies(Puzzle.of(contradiction)));
+        Assert.assertEquals("Dead cell", SolveResult.UNSOLVABLE, context.getLastResult());
+        int[][] repeated = new int[9][9];
+        repeated[0][0] = 1;
+        repeated[0][1] = 1;
+        Assert.assertFalse("No solution", context.solveWithStrategies(Puzzle.of(repeated)));
+        Assert.assertEquals("Repeated given", SolveResult.UNSOLVABLE, context.getLastResult());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void wrongSizeTest(){
+        new SolverContext(9).solve(Puzzle.of(BoardUtils.bigBoard));
+    }
+
+    @Test
+    public void sharedPuzzleTest() throws InterruptedException {
+        Puzzle puzzle = Puzzle.of(BoardUtils.giantBoard1);
+        int[][] expected = new DancingLinks(25).solve(BoardUtils.giantBoard1);
+        List<int[][]> solutions = new ArrayList<>();
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            Thread thread = new Thread(() -> {
+                SolverContext context = new SolverContext(25);
+                context.solve(puzzle);
+                synchronized (solutions) {
+                    solutions.add(context.getSolution());
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        Assert.assertEquals("Solution per thread", 4, solutions.size());
+        for (int[][] solution : solutions) {
+            Assert.assertArrayEquals("Same solution", expected, solution);
+        }
+    }
+}
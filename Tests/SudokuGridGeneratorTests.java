@@ -0,0 +1,40 @@
+import org.junit.Assert;
+import org.junit.Test;
+import v2.*;
+
+public class SudokuGridGeneratorTests {
+
+    @Test
+    public void validGridTest(){
+        SudokuGridGenerator generator = new SudokuGridGenerator(42);
+        for (int size : new int[]{4, 9, 16, 25}) {
+            int[] grid = generator.generateGrid(size);
+            Assert.assertEquals("Full grid of size " + size, 1, SolutionCounter.countSolutions(grid, size, 2));
+            for (int value : grid) {
+                Assert.assertNotEquals("No empty cells in size " + size, 0, value);
+            }
+        }
+    }
+
+    @Test
+    public void seedTest(){
+        SudokuGridGenerator first = new SudokuGridGenerator(7);
+        SudokuGridGenerator second = new SudokuGridGenerator(7);
+        int[] target = new int[25 * 25];
+        for (int i = 0; i < 5; i++) {
+            second.generateGrid(25, target);
+            Assert.assertArrayEquals("Same seed, same grid", first.generateGrid(25), target);
+        }
+        Assert.assertEquals("Same seed, same swaps", first.getBasSwaps(), second.getBasSwaps());
+        Assert.assertEquals("Same seed, same backtracks", first.getBacktracks(), second.getBacktracks());
+        Assert.assertTrue("Swaps are counted", first.getBasSwaps() > 0);
+    }
+
+    @Test
+    public void splitTest(){
+        SudokuGridGenerator generator = new SudokuGridGenerator(7);
+        SudokuGridGenerator split = generator.split();
+        Assert.assertFalse("Split generator has its own stream", java.util.Arrays.equals(generator.generateGrid(16), split.generateGrid(16)));
+        Assert.assertArrayEquals("Split is reproducible", new SudokuGridGenerator(7).split().generateGrid(16), new SudokuGridGenerator(7).split().generateGrid(16));
+    }
+}
@@ -0,0 +1,144 @@
+package v2;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Solves many boards concurrently on a ForkJoinPool.
+ * Every worker thread solves with its own pooled {@link SolverContext}, nothing is shared between the
+ * workers but the immutable puzzles and the results, so the throughput grows with the number of cores.
+ * The pool given to the constructor is used as is, the caller owns it and shuts it down.
+ */
+public class BatchSolver {
+
+    private static final int BOARDS_PER_TASK = 256;
+    // chunks submitted and not joined yet per worker, enough to keep the workers busy while the stream is read
+    private static final int TASKS_IN_FLIGHT_PER_WORKER = 2;
+
+    /**
+     * @param index position of the board in the input
+     * @param solution the solved board, null unless the result is SOLVED
+     */
+    public record Result(int index, int[][] solution, SolveResult result) {
+    }
+
+    public record Report(int boards, int solved, long nanos) {
+
+        public double boardsPerSecond() {
+            return nanos == 0 ? 0 : boards / (nanos / 1e9);
+        }
+
+        @Override
+        public String toString() {
+            return boards + " boards (" + solved + " solved) in " + nanos / 1_000_000 + " ms, " + (long) boardsPerSecond() + " boards per second";
+        }
+    }
+
+    private final ForkJoinPool pool;
+    private volatile Report lastReport;
+
+    public BatchSolver() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public BatchSolver(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * @return the report of the last batch solved by this solver, null if none was
+     */
+    public Report getLastReport() {
+        return lastReport;
+    }
+
+    private static Result solve(int index, int[][] intBoard) {
+        Puzzle puzzle = Puzzle.of(intBoard);
+        SolverContext context = SolverContext.forCurrentThread(puzzle.size());
+        SolveResult result = context.solve(puzzle);
+        return new Result(index, result == SolveResult.SOLVED ? context.getSolution() : null, result);
+    }
+
+    /**
+     * Solves the boards concurrently and waits for all of them.
+     * @return the results, in the order of the boards
+     */
+    public List<Result> solveAll(List<int[][]> boards) {
+        long start = System.nanoTime();
+        List<Result> results = pool.submit(() -> IntStream.range(0, boards.size())
+                .parallel()
+                .mapToObj(index -> solve(index, boards.get(index)))
+                .toList()).join();
+        int solved = (int) results.stream().filter(result -> result.result() == SolveResult.SOLVED).count();
+        lastReport = new Report(results.size(), solved, System.nanoTime() - start);
+        return results;
+    }
+
+    /**
+     * Solves the boards of the stream concurrently, the stream is read by the calling thread in
+     * chunks that are solved by the workers.
+     * At most two chunks per worker are read ahead of the solved ones, the caller waits for the oldest
+     * chunk before reading more, so a large or endless stream isn't held in memory.
+     * @param consumer receives the results as they are ready, tagged with the index of their board,
+     *                 it's called from the worker threads and has to be thread safe
+     * @return the report of the batch, once every board was solved
+     */
+    public Report solveAll(Stream<int[][]> boards, Consumer<Result> consumer) {
+        long start = System.nanoTime();
+        AtomicInteger solved = new AtomicInteger();
+        int maxTasksInFlight = pool.getParallelism() * TASKS_IN_FLIGHT_PER_WORKER;
+        Deque<ForkJoinTask<?>> tasks = new ArrayDeque<>(maxTasksInFlight);
+        Iterator<int[][]> iterator = boards.iterator();
+        int count = 0;
+        while (iterator.hasNext()) {
+            if(tasks.size() == maxTasksInFlight){
+                tasks.poll().join();
+            }
+            int[][][] chunk = new int[BOARDS_PER_TASK][][];
+            int chunkLength = 0;
+            while (chunkLength < BOARDS_PER_TASK && iterator.hasNext()) {
+                chunk[chunkLength++] = iterator.next();
+            }
+            int firstIndex = count;
+            int length = chunkLength;
+            tasks.add(pool.submit(() -> {
+                for (int i = 0; i < length; i++) {
+                    Result result = solve(firstIndex + i, chunk[i]);
+                    if(result.result() == SolveResult.SOLVED){
+                        solved.incrementAndGet();
+                    }
+                    consumer.accept(result);
+                }
+            }));
+            count += chunkLength;
+        }
+        while (!tasks.isEmpty()) {
+            tasks.poll().join();
+        }
+        Report report = new Report(count, solved.get(), System.nanoTime() - start);
+        lastReport = report;
+        return report;
+    }
+
+    public static void main(String[] args) {
+        int[] seedGrid = new SudokuGridGenerator(1).generateGrid(9);
+        int[] puzzle = new PuzzleDigger(1).dig(seedGrid, 9, PuzzleDigger.RemovalOrder.RANDOM);
+        List<int[][]> boards = new ArrayList<>();
+        for (int i = 0; i < 100_000; i++) {
+            boards.add(BoardUtils.toIntBoard(puzzle, 9));
+        }
+        BatchSolver batchSolver = new BatchSolver();
+        batchSolver.solveAll(boards);
+        System.out.println("Ordered: " + batchSolver.getLastReport());
+        System.out.println("Streamed: " + batchSolver.solveAll(boards.stream(), result -> {}));
+    }
+}
@@ -4,153 +4,153 @@ import java.util.*;
 
 public class Board {
 
+    // largest subset looked for in every unit on every iteration, larger ones wait for a stall
+    private static final int UNIT_SUBSET_MAX_SIZE = 4;
+
     private int size;
+    private Topology topology;
     private Cell[][] board;
+    private Cell[] cells;
     private List<Row> rows;
     private List<Column> columns;
     private Box[][] boxes;
-    private List<EliminatedRecord> eliminatedRecords;
+    private List<Box> boxList;
+    private EliminationSink eliminations;
+    private Trail trail;
+    private SinglesQueue singlesQueue;
+    private BoardStatus status;
+    private long searchNodes;
+    private VersionStamps rowsSeen;
+    private VersionStamps columnsSeen;
+    private VersionStamps boxesSeen;
+    private VersionStamps pointingSeen;
+    private VersionStamps rowsClaimingSeen;
+    private VersionStamps columnsClaimingSeen;
+    private VersionStamps rowsXWingsSeen;
+    private VersionStamps columnsXWingsSeen;
+    private boolean[] xWingsChanged;
+    private StrategyMetrics metrics;
+    private long measureStart;
+    private int measureRecords;
+    private boolean tracePasses;
+    private boolean traceIterations;
+    private boolean traceBranches;
+    private SolverEvents.StrategyPass strategyPass;
+    private int searchDepth;
+    private int iterations;
 
     public Board(int[][] intBoard) {
         size = intBoard.length;
-        eliminatedRecords = new LinkedList<>();
+        topology = Topology.of(size);
+        eliminations = new EliminationCounter();
         buildBoard(intBoard);
         initRows();
         initColumns();
         initBoxes();
+        initTrail();
+        initSinglesQueue();
+        initStatus();
+        initVersionStamps();
+        metrics = MetricsRegistry.isEnabled() ? new StrategyMetrics() : null;
     }
 
-    private void buildBoard(int[][] intBoard) {
-        board = new Cell[size][size];
-        for (int row = 0; row < size; row++) {
-            for (int column = 0; column < size; column++) {
-                board[row][column] = new Cell(intBoard[row][column], size, row, column, eliminatedRecords);
-            }
-        }
-        initCellsIneligibles();
+    /**
+     * Creates a board holding the givens of the puzzle, every board owns its own state.
+     */
+    public Board(Puzzle puzzle) {
+        this(puzzle.toIntBoard());
     }
 
-    private void initCellsIneligibles() {
-        initRowsIneligibles();
-        initColsIneligibles();
-        initBoxesIneligibles();
-    }
-
-    private void initRowsIneligibles() {
-        for (int i = 0; i < size; i++) {
-            initRowIneligibles(i);
+    private void initSinglesQueue() {
+        singlesQueue = new SinglesQueue();
+        for (Cell cell : cells) {
+            cell.setSinglesQueue(singlesQueue);
         }
     }
 
-    private void initRowIneligibles(int i) {
-        Set<Integer> rowIneligibles = getRowIneligibles(i);
-        for (int j = 0; j < board.length; j++) {
-            if(board[i][j].isEmpty()){
-                for (Integer ineligible:rowIneligibles) {
-                    board[i][j].addIneligible(ineligible, "Initialization");
-                }
-            }
-        }
-    }
-
-    private Set<Integer> getRowIneligibles(int i) {
-        Set<Integer> ineligibles = new HashSet<>();
-        for (int j = 0; j < size; j++) {
-            if(!board[i][j].isEmpty()) {
-                ineligibles.add(board[i][j].getValue());
-            }
+    private void initStatus() {
+        status = new BoardStatus();
+        for (Cell cell : cells) {
+            cell.setStatus(status);
         }
-        return ineligibles;
     }
 
-    private void initColsIneligibles() {
-        for (int j = 0; j < size; j++) {
-            initColIneligibles(j);
-        }
+    private void initVersionStamps() {
+        rowsSeen = new VersionStamps(size);
+        columnsSeen = new VersionStamps(size);
+        boxesSeen = new VersionStamps(size);
+        pointingSeen = new VersionStamps(size);
+        rowsClaimingSeen = new VersionStamps(size);
+        columnsClaimingSeen = new VersionStamps(size);
+        rowsXWingsSeen = new VersionStamps(size);
+        columnsXWingsSeen = new VersionStamps(size);
+        xWingsChanged = new boolean[size];
     }
 
-    private void initColIneligibles(int j) {
-        Set<Integer> colIneligibles = getColIneligibles(j);
-        for (int i = 0; i < size; i++) {
-            if(board[i][j].isEmpty()){
-                for (Integer ineligible:colIneligibles) {
-                    board[i][j].addIneligible(ineligible, "Initialization");
-                }
-            }
+    private void initTrail() {
+        trail = new Trail(eliminations);
+        for (Cell cell : cells) {
+            cell.setTrail(trail);
         }
     }
 
-    private Set<Integer> getColIneligibles(int j) {
-        Set<Integer> ineligibles = new HashSet<>();
-        for (int i = 0; i < size; i++) {
-            if(!board[i][j].isEmpty()) {
-                ineligibles.add(board[i][j].getValue());
+    private void buildBoard(int[][] intBoard) {
+        board = new Cell[size][size];
+        cells = new Cell[topology.getCellCount()];
+        for (int row = 0; row < size; row++) {
+            for (int column = 0; column < size; column++) {
+                board[row][column] = new Cell(intBoard[row][column], size, row, column, eliminations);
+                cells[topology.cellIndex(row, column)] = board[row][column];
             }
         }
-        return ineligibles;
+        initCellsIneligibles();
     }
 
-    private void initBoxesIneligibles() {
-        int sqrSize = (int)Math.sqrt(size);
-        for (int localBoxRow = 0; localBoxRow < size; localBoxRow += sqrSize) {
-            for (int localBoxCol = 0; localBoxCol < size; localBoxCol += sqrSize) {
-                initBoxIneligibles(localBoxRow, localBoxCol);
-            }
+    private void initCellsIneligibles() {
+        for (int unit = 0; unit < topology.getUnitCount(); unit++) {
+            initUnitIneligibles(unit);
         }
     }
 
-    private void initBoxIneligibles(int localBoxRow, int localBoxCol) {
-        int sqrSize = (int)Math.sqrt(size);
-        Set<Integer> boxIneligibles = getBoxIneligibles(localBoxRow, localBoxCol);
-        for (int i = localBoxRow; i < localBoxRow + sqrSize; i++) {
-            for (int j = localBoxCol; j < localBoxCol + sqrSize; j++) {
-                if(board[i][j].isEmpty()) {
-                    for (Integer ineligible : boxIneligibles) {
-                        board[i][j].addIneligible(ineligible, "Initialization");
-                    }
+    private void initUnitIneligibles(int unit) {
+        long unitIneligibles = getUnitIneligibles(unit);
+        for (int position = 0; position < size; position++) {
+            Cell cell = cells[topology.unitCell(unit, position)];
+            if(cell.isEmpty()){
+                for (long rest = unitIneligibles; rest != 0; rest &= rest - 1) {
+                    cell.addIneligible(Candidates.lowestDigit(rest), Technique.INITIALIZATION);
                 }
             }
         }
     }
 
-    private Set<Integer> getBoxIneligibles(int localBoxRow, int localBoxCol) {
-        int sqrSize = (int)Math.sqrt(size);
-        Set<Integer> ineligibles = new HashSet<>();
-        for (int i = localBoxRow; i < localBoxRow + sqrSize; i++) {
-            for (int j = localBoxCol; j < localBoxCol + sqrSize; j++) {
-                if(!board[i][j].isEmpty()){
-                    ineligibles.add(board[i][j].getValue());
-                }
+    private long getUnitIneligibles(int unit) {
+        long ineligibles = 0;
+        for (int position = 0; position < size; position++) {
+            Cell cell = cells[topology.unitCell(unit, position)];
+            if(!cell.isEmpty()) {
+                ineligibles |= Candidates.of(cell.getValue());
             }
         }
         return ineligibles;
     }
 
     private void initBoxes() {
-        int sqrSize = (int)Math.sqrt(size);
+        int sqrSize = topology.getBoxSize();
         boxes = new Box[sqrSize][sqrSize];
+        boxList = new ArrayList<>();
         for (int localRowIndex = 0; localRowIndex < sqrSize; localRowIndex++) {
             for (int localColumnIndex = 0; localColumnIndex < sqrSize; localColumnIndex++) {
                 Cell[][] box = new Cell[sqrSize][sqrSize];
                 for (int row = 0; row < sqrSize; row++) {
                     System.arraycopy(board[localRowIndex * sqrSize + row], localColumnIndex * sqrSize, box[row], 0, sqrSize);
                 }
-                boxes[localRowIndex][localColumnIndex] = new Box(box, localRowIndex, localColumnIndex, eliminatedRecords);
+                boxes[localRowIndex][localColumnIndex] = new Box(box, localRowIndex, localColumnIndex);
+                boxList.add(boxes[localRowIndex][localColumnIndex]);
             }
         }
     }
 
-    private List<Box> boxesAsList(){
-        List<Box> boxArrayList = new ArrayList<>();
-        int sqrtSize = (int) Math.sqrt(size);
-        for (int row = 0; row < sqrtSize; row++) {
-            for (int column = 0; column < sqrtSize; column++) {
-                boxArrayList.add(boxes[row][column]);
-            }
-        }
-        return boxArrayList;
-    }
-
     private void initColumns() {
         columns = new ArrayList<>();
         for (int j = 0; j < size; j++) {
@@ -158,76 +158,97 @@ public class Board {
             for (int i = 0; i < size; i++) {
                 column[i] = board[i][j];
             }
-            columns.add(new Column(j, size, column, eliminatedRecords));
+            columns.add(new Column(j, size, column));
         }
     }
 
     private void initRows() {
         rows = new ArrayList<>();
         for (int i = 0; i < size; i++) {
-            rows.add(new Row(i, size, board[i], eliminatedRecords));
+            rows.add(new Row(i, size, board[i]));
         }
     }
 
     private void doBoxEliminations(List<Box> boxesAsList) {
-        for (Box box : boxesAsList) {
-            box.getNakedPairs();
-            revealNumbersOnBox(box);
-            box.getHiddenPairs();
-            revealNumbersOnBox(box);
-            box.getNakedTriple();
-            revealNumbersOnBox(box);
-            box.getNakedQuad();
-            revealNumbersOnBox(box);
+        for (int boxIndex = 0; boxIndex < boxesAsList.size() && !status.hasContradiction(); boxIndex++) {
+            Box box = boxesAsList.get(boxIndex);
+            if(!boxesSeen.checkAndMark(boxIndex, box.getVersion()))
+                continue;
+            eliminateWithSubsets(box.getSubsetFinder(), topology.boxUnit(boxIndex), 2, UNIT_SUBSET_MAX_SIZE);
         }
     }
 
-    private void revealNumbersOnBox(Box box) {
-        revealNumbers(new HashSet<>(box.getNakedSingles()));
-        revealNumbers(new HashSet<>(box.getHiddenSingles()));
+    private void doLineEliminations(List<? extends Line> lines, VersionStamps linesSeen, int firstUnit) {
+        for (Line line : lines) {
+            if(status.hasContradiction())
+                return;
+            if(!linesSeen.checkAndMark(line.getLineIndex(), line.getVersion()))
+                continue;
+            eliminateWithSubsets(line.getSubsetFinder(), firstUnit + line.getLineIndex(), 2, UNIT_SUBSET_MAX_SIZE);
+        }
     }
 
-    private void doLineEliminations(List<? extends Line> lines) {
-        for (Line line : lines) {
-            line.getNakedPairs();
-            revealNumbersOnLine(line);
-            line.getHiddenPairs();
-            revealNumbersOnLine(line);
-            line.getNakedTriple();
-            revealNumbersOnLine(line);
-            line.getNakedQuad();
-            revealNumbersOnLine(line);
+    /**
+     * Naked and then Hidden subsets of every size from minSize to maxSize in one unit, placing the
+     * singles they leave after each of them.
+     */
+    private void eliminateWithSubsets(SubsetFinder subsets, int unit, int minSize, int maxSize) {
+        for (int subsetSize = minSize; subsetSize <= maxSize && !status.hasContradiction(); subsetSize++) {
+            startMeasure(unit);
+            subsets.findNaked(subsetSize);
+            subsets.eliminateNaked(Technique.naked(subsetSize));
+            endMeasure(Technique.naked(subsetSize));
+            revealQueuedSingles();
+            startMeasure(unit);
+            subsets.findHidden(subsetSize);
+            subsets.eliminateHidden(Technique.hidden(subsetSize));
+            endMeasure(Technique.hidden(subsetSize));
+            revealQueuedSingles();
         }
     }
 
-    private void revealNumbersOnLine(Line line) {
-        revealNumbers(new HashSet<>(line.getNakedSingles()));
-        revealNumbers(new HashSet<>(line.getHiddenSingles()));
+    /**
+     * Subsets larger than a quad, up to half of the empty cells of the unit, which is enough to
+     * find them all. Only boards above 9x9 have such units, and they have many combinations, so
+     * they are looked for only when the other strategies are stuck.
+     * @return true if any option was eliminated
+     */
+    private boolean eliminateWithLargeSubsets() {
+        int eliminationsBefore = eliminations.count();
+        for (int line = 0; line < size && !status.hasContradiction(); line++) {
+            eliminateWithLargeSubsets(rows.get(line).getSubsetFinder(), topology.rowUnit(line));
+            eliminateWithLargeSubsets(columns.get(line).getSubsetFinder(), topology.columnUnit(line));
+            eliminateWithLargeSubsets(boxList.get(line).getSubsetFinder(), topology.boxUnit(line));
+        }
+        return eliminations.count() != eliminationsBefore;
+    }
+
+    private void eliminateWithLargeSubsets(SubsetFinder subsets, int unit) {
+        eliminateWithSubsets(subsets, unit, UNIT_SUBSET_MAX_SIZE + 1, subsets.getEmptyCount() / 2);
     }
 
-    private List<EliminatedRecord> eliminateWithXWings(){
-        eliminatedRecords.addAll(eliminateWithXWings(rows, columns));
-        eliminatedRecords.addAll(eliminateWithXWings(columns, rows));
-        return eliminatedRecords;
+    private void eliminateWithXWings(){
+        eliminateWithXWings(rows, columns, rowsXWingsSeen);
+        eliminateWithXWings(columns, rows, columnsXWingsSeen);
     }
 
-    private List<EliminatedRecord> eliminateWithXWings(List<? extends Line> linesToLookAt, List<? extends Line> linesToRemoveFrom){
-        List<EliminatedRecord> eliminated = new ArrayList<>();
+    private void eliminateWithXWings(List<? extends Line> linesToLookAt, List<? extends Line> linesToRemoveFrom, VersionStamps linesSeen){
+        boolean[] changed = xWingsChanged;
+        for (int line = 0; line < size; line++) {
+            changed[line] = linesSeen.checkAndMark(line, linesToLookAt.get(line).getVersion());
+        }
         for (int line1 = 0; line1 < size - 1; line1++) {
             for (int line2 = line1 + 1; line2 < size; line2++) {
-                int[] appearanceCountersForNumberArray1 = linesToLookAt.get(line1).getAppearanceCountersForNumberArray();
-                int[] appearanceCountersForNumberArray2 = linesToLookAt.get(line2).getAppearanceCountersForNumberArray();
-                for (int number = 1; number < appearanceCountersForNumberArray1.length; number++) {
-                    if(appearanceCountersForNumberArray1[number] == 2 && appearanceCountersForNumberArray2[number] == 2){
-                        Set<Integer> cellsIndexesWithOptions1 = linesToLookAt.get(line1).getCellsIndexesWithOption(number);
-                        Set<Integer> cellsIndexesWithOptions2 = linesToLookAt.get(line2).getCellsIndexesWithOption(number);
-                        if(cellsIndexesWithOptions1.equals(cellsIndexesWithOptions2)){
-                            for (Integer lineIndex : cellsIndexesWithOptions1) {
-                                Cell[] line = linesToRemoveFrom.get(lineIndex).getLine();
-                                for (int i = 0; i < line.length; i++) {
-                                    if(i != line1 && i != line2 && line[i].isEmpty() && line[i].hasOption(number)){
-                                        line[i].addIneligible(number, "XWings");
-                                    }
+                if(!changed[line1] && !changed[line2])
+                    continue;
+                for (int number = 1; number <= size; number++) {
+                    long positions1 = linesToLookAt.get(line1).getPositionsMask(number);
+                    if(Long.bitCount(positions1) == 2 && positions1 == linesToLookAt.get(line2).getPositionsMask(number)){
+                        for (long rest = positions1; rest != 0; rest &= rest - 1) {
+                            Cell[] line = linesToRemoveFrom.get(Long.numberOfTrailingZeros(rest)).getLine();
+                            for (int i = 0; i < line.length; i++) {
+                                if(i != line1 && i != line2 && line[i].isEmpty() && line[i].hasOption(number)){
+                                    line[i].addIneligible(number, Technique.X_WING);
                                 }
                             }
                         }
@@ -235,27 +256,28 @@ public class Board {
                 }
             }
         }
-        return eliminated;
     }
 
-    private List<EliminatedRecord> eliminateWithClaimingPair(){
-        eliminatedRecords.addAll(eliminateWithClaimingPair("vertical"));
-        eliminatedRecords.addAll(eliminateWithClaimingPair("horizontal"));
-        return eliminatedRecords;
+    private void eliminateWithClaimingPair(){
+        eliminateWithClaimingPair("vertical");
+        eliminateWithClaimingPair("horizontal");
     }
 
-    private List<EliminatedRecord> eliminateWithClaimingPair(String type){
-        List<EliminatedRecord> eliminated = new ArrayList<>();
+    private void eliminateWithClaimingPair(String type){
         List<ClaimingPairRecord> claimingPairRecords = new ArrayList<>();
         switch (type){
             case "vertical" -> {
                 for (Row row : rows) {
-                    claimingPairRecords.addAll(row.lookForVerticalClaimingPair());
+                    if(rowsClaimingSeen.checkAndMark(row.getLineIndex(), row.getVersion())) {
+                        claimingPairRecords.addAll(row.lookForVerticalClaimingPair());
+                    }
                 }
             }
             case "horizontal" -> {
                 for (Column column : columns) {
-                    claimingPairRecords.addAll(column.lookForHorizontalClaimingPair());
+                    if(columnsClaimingSeen.checkAndMark(column.getLineIndex(), column.getVersion())) {
+                        claimingPairRecords.addAll(column.lookForHorizontalClaimingPair());
+                    }
                 }
             }
         }
@@ -266,77 +288,135 @@ public class Board {
                     switch (type) {
                         case "vertical" -> {
                             if (row != claimingPair.lineIndexInBox() && box[row][column].isEmpty()) {
-                                box[row][column].addIneligible(claimingPair.value(), "Vertical Claiming Pair");
+                                box[row][column].addIneligible(claimingPair.value(), Technique.CLAIMING_PAIR);
                             }
                         }
                         case "horizontal" -> {
                             if (column != claimingPair.lineIndexInBox() && box[row][column].isEmpty()) {
-                                box[row][column].addIneligible(claimingPair.value(), "Horizontal Claiming Pair");
+                                box[row][column].addIneligible(claimingPair.value(), Technique.CLAIMING_PAIR);
                             }
                         }
                     }
                 }
             }
         }
-        return eliminated;
     }
 
-    private List<EliminatedRecord> eliminateWithPointingPairs() {
-        int sqrtSize = (int) Math.sqrt(size);
+    private void eliminateWithPointingPairs() {
+        int sqrtSize = topology.getBoxSize();
         for (int localRow = 0; localRow < sqrtSize; localRow++) {
             for (int localColumn = 0; localColumn < sqrtSize; localColumn++) {
-                eliminatedRecords.addAll(eliminatePointingPairsInColumns(sqrtSize, localRow, localColumn));
-                eliminatedRecords.addAll(eliminatePointingPairsInRows(sqrtSize, localRow, localColumn));
+                if(!pointingSeen.checkAndMark(localRow * sqrtSize + localColumn, boxes[localRow][localColumn].getVersion()))
+                    continue;
+                eliminatePointingPairsInColumns(sqrtSize, localRow, localColumn);
+                eliminatePointingPairsInRows(sqrtSize, localRow, localColumn);
             }
         }
-        return eliminatedRecords;
     }
 
-    private List<EliminatedRecord> eliminatePointingPairsInRows(int sqrtSize, int localRow, int localColumn) {
-        List<EliminatedRecord> eliminated = new ArrayList<>();
+    private void eliminatePointingPairsInRows(int sqrtSize, int localRow, int localColumn) {
         List<PointingPairRecord> pointingPairRecords = boxes[localRow][localColumn].lookForHorizontalPointingPair();
         for (PointingPairRecord pointingPair : pointingPairRecords) {
             for (int column = 0; column < size; column++) {
                 if(board[pointingPair.line()][column].isEmpty()){
                     if(column < boxes[localRow][localColumn].getGlobalColumn() || column >= boxes[localRow][localColumn].getGlobalColumn() + sqrtSize){
-                        board[pointingPair.line()][column].addIneligible(pointingPair.value(), "Horizontal Pointing Pair");
+                        board[pointingPair.line()][column].addIneligible(pointingPair.value(), Technique.POINTING_PAIR);
                     }
                 }
             }
         }
-        return eliminated;
     }
 
-    private List<EliminatedRecord> eliminatePointingPairsInColumns(int sqrtSize, int localRow, int localColumn) {
-        List<EliminatedRecord> eliminated = new ArrayList<>();
+    private void eliminatePointingPairsInColumns(int sqrtSize, int localRow, int localColumn) {
         List<PointingPairRecord> pointingPairRecords = boxes[localRow][localColumn].lookForVerticalPointingPair();
         for (PointingPairRecord pointingPair : pointingPairRecords) {
             for (int row = 0; row < size; row++) {
                 if(board[row][pointingPair.line()].isEmpty()){
                     if(row < boxes[localRow][localColumn].getGlobalRow() || row >= boxes[localRow][localColumn].getGlobalRow() + sqrtSize){
-                        board[row][pointingPair.line()].addIneligible(pointingPair.value(), "Vertical Pointing Pair");
+                        board[row][pointingPair.line()].addIneligible(pointingPair.value(), Technique.POINTING_PAIR);
                     }
                 }
             }
         }
-        return eliminated;
     }
 
-    private boolean revealNumbers(Set<CellRecord> cellsToReveal) {
-        for (CellRecord cellRecord : cellsToReveal) {
-            putNumber(cellRecord);
+    /**
+     * Starts measuring a strategy call, does nothing when the metrics and the strategy pass events are disabled.
+     * @param unit the topology unit the strategy runs on, -1 for the whole board
+     */
+    private void startMeasure(int unit) {
+        if(metrics != null || tracePasses){
+            measureRecords = eliminations.count();
+            measureStart = System.nanoTime();
+        }
+        if(tracePasses){
+            strategyPass = new SolverEvents.StrategyPass();
+            strategyPass.unit = unit;
+            strategyPass.begin();
+        }
+    }
+
+    private void endMeasure(Technique technique) {
+        endMeasure(technique, 0);
+    }
+
+    private void endMeasure(Technique technique, int placed) {
+        if(metrics != null){
+            metrics.record(technique, System.nanoTime() - measureStart, eliminations.count() - measureRecords, placed);
+        }
+        if(tracePasses){
+            strategyPass.end();
+            if(strategyPass.shouldCommit()){
+                strategyPass.technique = technique.getDisplayName();
+                strategyPass.eliminations = eliminations.count() - measureRecords;
+                strategyPass.placements = placed;
+                strategyPass.commit();
+            }
+            strategyPass = null;
         }
-        return cellsToReveal.size() > 0;
     }
 
-    private void putNumber(CellRecord cellRecord) {
-        Cell cell = cellRecord.cell();
-        int value = cellRecord.value();
+    /**
+     * Places the queued singles until the queue is empty, placing a number can queue new singles.
+     * @return true if any number was placed
+     */
+    private boolean revealQueuedSingles() {
+        boolean revealed = false;
+        while (!singlesQueue.isEmpty() && !status.hasContradiction()){
+            Cell cell = singlesQueue.headCell();
+            int value = singlesQueue.headValue();
+            Technique technique = singlesQueue.headTechnique();
+            singlesQueue.pop();
+            if(cell.isEmpty() && cell.hasOption(value)){
+                startMeasure(-1);
+                putNumber(cell, value);
+                endMeasure(technique, 1);
+                revealed = true;
+            }
+        }
+        return revealed;
+    }
+
+    /**
+     * Refills the queue with every single on the board, needed when options were given back
+     * (rollback or a removed clue) since the queue only follows options being removed.
+     */
+    private void seedSinglesQueue() {
+        singlesQueue.clear();
+        for (CellRecord single : lookForNakedSingles()) {
+            singlesQueue.add(single.cell(), single.value());
+        }
+        for (CellRecord single : lookForHiddenSingles()) {
+            singlesQueue.addHidden(single.cell(), single.value());
+        }
+    }
+
+    private void putNumber(Cell cell, int value) {
         int row = cell.getRow();
         int column = cell.getColumn();
         rows.get(row).putNumber(column, value);
         columns.get(column).putNumber(row, value);
-        boxes[cell.getBoxIndexes()[0]][cell.getBoxIndexes()[1]].putNumber(row, column, value);
+        boxList.get(topology.boxOf(topology.cellIndex(row, column))).putNumber(row, column, value);
     }
 
     private Set<CellRecord> lookForHiddenSingles() {
@@ -347,12 +427,8 @@ public class Board {
         for (Column column : columns) {
             hiddenSingles.addAll(column.getHiddenSingles());
         }
-        int sqrtSize = (int) Math.sqrt(size);
-        for (int i = 0; i < sqrtSize; i++) {
-            for (int j = 0; j < sqrtSize; j++) {
-                hiddenSingles.addAll(boxes[i][j].getHiddenSingles());
-            }
-
+        for (Box box : boxList) {
+            hiddenSingles.addAll(box.getHiddenSingles());
         }
         return hiddenSingles;
     }
@@ -362,40 +438,35 @@ public class Board {
         for (int row = 0; row < size; row++) {
             for (int column = 0; column < size; column++) {
                 if(board[row][column].isNakedSingle()){
-                    try {
-                        nakedSingles.add(new CellRecord(board[row][column], board[row][column].getOnlyOption()));
-                    } catch (ValueHaveFewOptionsException ignore) {
-                    }
+                    nakedSingles.add(new CellRecord(board[row][column], board[row][column].getSingleOption()));
                 }
             }
         }
         return nakedSingles;
     }
 
-    private boolean isSolved(){
-        for (int i = 0; i < size; i++) {
-            for (int j = 0; j < size; j++) {
-                if(board[i][j].isEmpty())
-                    return false;
-            }
-        }
-        return true;
+    /**
+     * @return true if every cell is filled and no number repeats in a row, column or box
+     */
+    public boolean isSolved(){
+        return status.isSolved();
     }
 
-    private boolean isWrongSolve() {
-        for (int row = 0; row < size; row++) {
-            for (int column = 0; column < size; column++) {
-                if(board[row][column].isEmpty() && board[row][column].getOptions().size() == 0){
-                    return true;
-                }
-            }
-        }
-        return false;
+    /**
+     * @return true if the board can't be solved as it is: an empty cell has no options, a number has
+     * no place left in a row, column or box, or repeats in one
+     */
+    public boolean hasContradiction() {
+        return status.hasContradiction();
+    }
+
+    public int getEmptyCellsCount() {
+        return status.getEmptyCells();
     }
 
     @Override
     public String toString() {
-        int sqrSize = (int)Math.sqrt(size);
+        int sqrSize = topology.getBoxSize();
         StringBuilder sb = new StringBuilder();
         for (int i = 0; i < size; i++) {
             if(i != 0 && i % sqrSize == 0){
@@ -415,31 +486,319 @@ public class Board {
         return sb.toString();
     }
 
+    /**
+     * Opens a checkpoint, every change made to the board from now on can be undone by {@link #rollback()}.
+     * Checkpoints can be nested.
+     * @return the number of open checkpoints
+     */
+    public int checkpoint() {
+        return trail.checkpoint();
+    }
+
+    /**
+     * Undoes every change made since the last checkpoint, in time proportional to the number of changes.
+     */
+    public void rollback() {
+        trail.rollback();
+        singlesQueue.clear();
+    }
+
+    /**
+     * Closes the last checkpoint and keeps its changes.
+     */
+    public void commit() {
+        trail.commit();
+    }
+
+    /**
+     * Places a number and eliminates it from the cell's row, column and box.
+     * @return false if the number isn't an option of the empty cell
+     */
+    public boolean place(int row, int column, int value) {
+        Cell cell = board[row][column];
+        if(!cell.isEmpty() || !cell.hasOption(value))
+            return false;
+        putNumber(cell, value);
+        return true;
+    }
+
+    /**
+     * Empties a cell and gives it and its row, column and box back the options that
+     * the placed numbers allow.
+     * Meant for boards that hold only givens, eliminations made by strategies on the
+     * affected cells are dropped.
+     */
+    public void removeClue(int row, int column) {
+        int cellIndex = topology.cellIndex(row, column);
+        if(cells[cellIndex].isEmpty())
+            return;
+        cells[cellIndex].reset(0, getPeersAllowedOptions(cellIndex));
+        for (int peer = 0; peer < topology.getPeerCount(); peer++) {
+            int peerIndex = topology.peer(cellIndex, peer);
+            if(cells[peerIndex].isEmpty()){
+                cells[peerIndex].reset(0, getPeersAllowedOptions(peerIndex));
+            }
+        }
+        singlesQueue.clear();
+    }
+
+    private long getPeersAllowedOptions(int cellIndex) {
+        long options = Candidates.full(size);
+        for (int peer = 0; peer < topology.getPeerCount(); peer++) {
+            Cell cell = cells[topology.peer(cellIndex, peer)];
+            if(!cell.isEmpty()){
+                options &= ~Candidates.of(cell.getValue());
+            }
+        }
+        return options;
+    }
+
+    public Cell getCell(int row, int column) {
+        return board[row][column];
+    }
+
+    public int[][] toIntBoard() {
+        int[][] intBoard = new int[size][size];
+        for (int row = 0; row < size; row++) {
+            for (int column = 0; column < size; column++) {
+                intBoard[row][column] = board[row][column].getValue();
+            }
+        }
+        return intBoard;
+    }
+
     public boolean solve() {
-        boolean cantSolve = false;
+        SolverEvents.Solve solveEvent = startSolve();
+        boolean solved = propagate();
+        endSolve(solveEvent, solved ? SolveResult.SOLVED : status.hasContradiction() ? SolveResult.UNSOLVABLE : SolveResult.STALLED);
+        return solved;
+    }
+
+    /**
+     * Starts a public solve: refills the singles queue, which may have missed singles since the
+     * last solve, resets the metrics and begins the solve event.
+     */
+    private SolverEvents.Solve startSolve() {
+        if(metrics != null){
+            metrics.reset();
+        }
+        tracePasses = SolverEvents.isStrategyPassEnabled();
+        traceIterations = SolverEvents.isSolveIterationEnabled();
+        traceBranches = SolverEvents.isSearchBranchEnabled();
+        iterations = 0;
+        SolverEvents.Solve solveEvent = null;
+        if(SolverEvents.isSolveEnabled()){
+            solveEvent = new SolverEvents.Solve();
+            solveEvent.givens = topology.getCellCount() - status.getEmptyCells();
+            solveEvent.begin();
+        }
+        seedSinglesQueue();
+        return solveEvent;
+    }
+
+    /**
+     * @param solveEvent the event of {@link #startSolve()}, null when it isn't recorded
+     */
+    private void endSolve(SolverEvents.Solve solveEvent, SolveResult result) {
+        if(metrics != null){
+            MetricsRegistry.add(size, metrics);
+        }
+        tracePasses = false;
+        traceIterations = false;
+        traceBranches = false;
+        if(solveEvent != null){
+            solveEvent.end();
+            if(solveEvent.shouldCommit()){
+                solveEvent.size = size;
+                solveEvent.result = result.name();
+                solveEvent.iterations = iterations;
+                solveEvent.commit();
+            }
+        }
+    }
+
+    /**
+     * Runs the strategies until the board is solved or they stall, starting from the singles
+     * already in the queue, which the cells keep up to date while options are removed.
+     * @return true if the board is solved
+     */
+    private boolean propagate() {
         while (!isSolved()){
-            int eliminationBeforeIteration = eliminatedRecords.size();
-            while (revealNumbers(lookForNakedSingles()) || revealNumbers(lookForHiddenSingles())){
+            iterations++;
+            SolverEvents.SolveIteration iterationEvent = null;
+            if(traceIterations){
+                iterationEvent = new SolverEvents.SolveIteration();
+                iterationEvent.iteration = iterations;
+                iterationEvent.emptyCellsBefore = status.getEmptyCells();
+                iterationEvent.begin();
             }
-            doLineEliminations(rows);
-            doLineEliminations(columns);
-            doBoxEliminations(boxesAsList());
+            int eliminationBeforeIteration = eliminations.count();
+            revealQueuedSingles();
+            doLineEliminations(rows, rowsSeen, topology.rowUnit(0));
+            doLineEliminations(columns, columnsSeen, topology.columnUnit(0));
+            doBoxEliminations(boxList);
+            startMeasure(-1);
             eliminateWithPointingPairs();
+            endMeasure(Technique.POINTING_PAIR);
+            startMeasure(-1);
             eliminateWithClaimingPair();
+            endMeasure(Technique.CLAIMING_PAIR);
+            startMeasure(-1);
             eliminateWithXWings();
-            int eliminationAfterIteration = eliminatedRecords.size();
-            if(isWrongSolve()){
+            endMeasure(Technique.X_WING);
+            int eliminationAfterIteration = eliminations.count();
+            if(iterationEvent != null){
+                iterationEvent.end();
+                if(iterationEvent.shouldCommit()){
+                    iterationEvent.emptyCellsAfter = status.getEmptyCells();
+                    iterationEvent.commit();
+                }
+            }
+            if(status.hasContradiction()){
                 // There are errors on this solve, some cells have 0 options.
-                cantSolve = true;
-                break;
+                return false;
             }
-            if(eliminationBeforeIteration == eliminationAfterIteration && !isSolved()){
+            if(eliminationBeforeIteration == eliminationAfterIteration && !isSolved() && !eliminateWithLargeSubsets()){
                 //no elimination made on the current iteration
-                cantSolve = true;
-                break;
+                return false;
             }
         }
-        return !cantSolve;
+        return true;
+    }
+
+    /**
+     * Solves with the strategies, and when they stall guesses a number for the empty cell with the
+     * fewest options, solves again and backtracks when the guess leads to a contradiction.
+     * When the result isn't {@link SolveResult#SOLVED} the board is left as the strategies left it.
+     * @param limits maximal number of guesses and time for the search
+     */
+    public SolveResult solveWithSearch(SearchLimits limits) {
+        searchNodes = 0;
+        searchDepth = 0;
+        long start = System.nanoTime();
+        long deadline = limits.maxNanos() > Long.MAX_VALUE - start ? Long.MAX_VALUE : start + limits.maxNanos();
+        SolverEvents.Solve solveEvent = startSolve();
+        SolveResult result = search(limits.maxNodes(), deadline);
+        endSolve(solveEvent, result);
+        return result;
+    }
+
+    /**
+     * One node of the search, a rollback brings the board back to a state the strategies already
+     * stalled on, so the singles queue is left empty and never needs to be refilled here.
+     */
+    private SolveResult search(long maxNodes, long deadline) {
+        if(propagate()){
+            return isValidSolution() ? SolveResult.SOLVED : SolveResult.UNSOLVABLE;
+        }
+        if(status.hasContradiction()){
+            return SolveResult.UNSOLVABLE;
+        }
+        Cell cell = getMinimumRemainingValuesCell();
+        for (long options = cell.getOptionsMask(); options != 0; options &= options - 1) {
+            if(searchNodes >= maxNodes || System.nanoTime() > deadline){
+                return SolveResult.BUDGET_EXCEEDED;
+            }
+            searchNodes++;
+            int value = Candidates.lowestDigit(options);
+            SolverEvents.SearchBranch branchEvent = null;
+            if(traceBranches){
+                branchEvent = new SolverEvents.SearchBranch();
+                branchEvent.begin();
+            }
+            checkpoint();
+            place(cell.getRow(), cell.getColumn(), value);
+            searchDepth++;
+            SolveResult result = search(maxNodes, deadline);
+            searchDepth--;
+            if(result == SolveResult.SOLVED){
+                commit();
+            }
+            else{
+                rollback();
+            }
+            if(branchEvent != null){
+                branchEvent.end();
+                if(branchEvent.shouldCommit()){
+                    branchEvent.depth = searchDepth;
+                    branchEvent.row = cell.getRow();
+                    branchEvent.column = cell.getColumn();
+                    branchEvent.value = value;
+                    branchEvent.result = result.name();
+                    branchEvent.commit();
+                }
+            }
+            if(result == SolveResult.SOLVED){
+                return result;
+            }
+            if(result == SolveResult.BUDGET_EXCEEDED){
+                return result;
+            }
+        }
+        return SolveResult.UNSOLVABLE;
+    }
+
+    private Cell getMinimumRemainingValuesCell() {
+        Cell best = null;
+        for (Cell cell : cells) {
+            if(cell.isEmpty() && (best == null || cell.getOptionsCount() < best.getOptionsCount())){
+                best = cell;
+                if(best.getOptionsCount() == 2)
+                    break;
+            }
+        }
+        return best;
+    }
+
+    private boolean isValidSolution() {
+        long full = Candidates.full(size);
+        for (int unit = 0; unit < topology.getUnitCount(); unit++) {
+            long values = 0;
+            for (int position = 0; position < size; position++) {
+                values |= Candidates.of(cells[topology.unitCell(unit, position)].getValue());
+            }
+            if(values != full)
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Sends the eliminations made from now on to the sink, the default sink only counts them.
+     * Use an {@link EliminationLog} to explain a solve.
+     * @throws IllegalStateException while a checkpoint is open
+     */
+    public void setEliminationSink(EliminationSink eliminations) {
+        trail.setEliminationSink(eliminations);
+        this.eliminations = eliminations;
+        for (Cell cell : cells) {
+            cell.setEliminationSink(eliminations);
+        }
+    }
+
+    public EliminationSink getEliminationSink() {
+        return eliminations;
+    }
+
+    /**
+     * Turns measuring the strategies of this board on or off, the default is {@link MetricsRegistry#isEnabled()}.
+     */
+    public void setMetricsEnabled(boolean enabled) {
+        metrics = enabled ? (metrics == null ? new StrategyMetrics() : metrics) : null;
+    }
+
+    /**
+     * @return the metrics of the last solve, or of every node of the last search, null when measuring is off
+     */
+    public StrategyMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * @return number of guesses made by the last {@link #solveWithSearch(SearchLimits)}
+     */
+    public long getSearchNodes() {
+        return searchNodes;
     }
 
     public static void main(String[] args) {
@@ -0,0 +1,209 @@
+package v2;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * A batch of boards of one size stored one after the other in a single int array, board i taking
+ * the cells from {@link #offset(int)}, row by row, 0 for an empty cell.
+ * A million 9x9 boards are one array instead of a million int[][] with 9 rows each, so loading
+ * and solving a corpus creates no object per board, and the solver engines read and write the
+ * boards in place ({@link SolverContext#solve(int[], int)}).
+ */
+public class BoardBatch {
+
+    private final Topology topology;
+    private final int cellCount;
+    private final int capacity;
+    private final int[] cells;
+    private final long[] solved;
+    private int count;
+
+    public BoardBatch(int size, int capacity) {
+        topology = Topology.of(size);
+        cellCount = topology.getCellCount();
+        if(capacity < 0 || (long) capacity * cellCount > Integer.MAX_VALUE - 8){
+            throw new IllegalArgumentException("Illegal capacity " + capacity + " for boards of size " + size);
+        }
+        this.capacity = capacity;
+        cells = new int[capacity * cellCount];
+        solved = new long[(capacity + 63) / 64];
+    }
+
+    public int size() {
+        return topology.size();
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * @return number of boards in the batch
+     */
+    public int count() {
+        return count;
+    }
+
+    public void clear() {
+        count = 0;
+        Arrays.fill(solved, 0);
+    }
+
+    /**
+     * @return the array holding all the boards, for engines that work in place
+     */
+    public int[] cells() {
+        return cells;
+    }
+
+    public int offset(int board) {
+        if(board < 0 || board >= count){
+            throw new IndexOutOfBoundsException("Board " + board + " out of " + count);
+        }
+        return board * cellCount;
+    }
+
+    public int get(int board, int row, int column) {
+        return cells[offset(board) + topology.cellIndex(row, column)];
+    }
+
+    public void set(int board, int row, int column, int value) {
+        checkValue(value);
+        cells[offset(board) + topology.cellIndex(row, column)] = value;
+    }
+
+    private void checkValue(int value) {
+        if(value < 0 || value > topology.size()){
+            throw new IllegalArgumentException("Illegal value " + value + " for a board of size " + topology.size());
+        }
+    }
+
+    /**
+     * @return the offset of the next board, counted by the caller once its cells are copied
+     */
+    private int nextOffset() {
+        if(count == capacity){
+            throw new IllegalStateException("The batch is full, its capacity is " + capacity);
+        }
+        return count * cellCount;
+    }
+
+    /**
+     * @return the index of the added board
+     */
+    public int add(int[][] intBoard) {
+        if(intBoard.length != topology.size()){
+            throw new IllegalArgumentException("Expected a board of size " + topology.size() + ", got " + intBoard.length);
+        }
+        for (int row = 0; row < intBoard.length; row++) {
+            if(intBoard[row].length != intBoard.length){
+                throw new IllegalArgumentException("Row " + row + " has " + intBoard[row].length + " cells, expected " + intBoard.length);
+            }
+            for (int value : intBoard[row]) {
+                checkValue(value);
+            }
+        }
+        int offset = nextOffset();
+        for (int row = 0; row < intBoard.length; row++) {
+            System.arraycopy(intBoard[row], 0, cells, offset + row * intBoard.length, intBoard.length);
+        }
+        return count++;
+    }
+
+    /**
+     * Adds the board stored from offset in source.
+     * @return the index of the added board
+     */
+    public int add(int[] source, int offset) {
+        if(offset < 0 || offset > source.length - cellCount){
+            throw new IllegalArgumentException("No board of " + cellCount + " cells at " + offset + " in " + source.length);
+        }
+        for (int cell = offset; cell < offset + cellCount; cell++) {
+            checkValue(source[cell]);
+        }
+        System.arraycopy(source, offset, cells, nextOffset(), cellCount);
+        return count++;
+    }
+
+    /**
+     * Reads a board written by {@link PackedGridCodec} at the position of source straight into the batch.
+     * @return the index of the added board
+     */
+    public int readPacked(ByteBuffer source) {
+        if(PackedGridCodec.peekSize(source) != topology.size()){
+            throw new IllegalArgumentException("Expected a board of size " + topology.size() + ", got " + PackedGridCodec.peekSize(source));
+        }
+        int offset = nextOffset();
+        PackedGridCodec.read(source, cells, offset);
+        return count++;
+    }
+
+    public void writePacked(int board, ByteBuffer target, boolean givensMask) {
+        PackedGridCodec.write(target, cells, offset(board), topology.size(), givensMask);
+    }
+
+    public void copyBoard(int board, int[] target) {
+        System.arraycopy(cells, offset(board), target, 0, cellCount);
+    }
+
+    public int[][] toIntBoard(int board) {
+        int[][] intBoard = new int[topology.size()][topology.size()];
+        int offset = offset(board);
+        for (int row = 0; row < intBoard.length; row++) {
+            System.arraycopy(cells, offset + row * intBoard.length, intBoard[row], 0, intBoard.length);
+        }
+        return intBoard;
+    }
+
+    /**
+     * @return true if the board was solved by the last {@link #solveAll(ForkJoinPool)}
+     */
+    public boolean isSolved(int board) {
+        offset(board);
+        return (solved[board >>> 6] & (1L << board)) != 0;
+    }
+
+    /**
+     * Solves every board of the batch in place, in parallel on the pool, unsolvable boards are left as they were.
+     * @return the report of the run
+     */
+    public BatchSolver.Report solveAll(ForkJoinPool pool) {
+        long start = System.nanoTime();
+        Arrays.fill(solved, 0);
+        int words = (count + 63) / 64;
+        //every task owns whole words of the solved bits, so the tasks never write the same word
+        pool.submit(() -> IntStream.range(0, words).parallel().forEach(word -> {
+            SolverContext context = SolverContext.forCurrentThread(topology.size());
+            long bits = 0;
+            int end = Math.min(count, (word + 1) * 64);
+            for (int board = word * 64; board < end; board++) {
+                if(context.solve(cells, board * cellCount) == SolveResult.SOLVED){
+                    bits |= 1L << board;
+                }
+            }
+            solved[word] = bits;
+        })).join();
+        int solvedCount = 0;
+        for (long bits : solved) {
+            solvedCount += Long.bitCount(bits);
+        }
+        return new BatchSolver.Report(count, solvedCount, System.nanoTime() - start);
+    }
+
+    public BatchSolver.Report solveAll() {
+        return solveAll(ForkJoinPool.commonPool());
+    }
+
+    public static void main(String[] args) {
+        int[] puzzle = BoardUtils.toCells(BoardUtils.hardBoard);
+        BoardBatch batch = new BoardBatch(9, 200_000);
+        for (int i = 0; i < batch.capacity(); i++) {
+            batch.add(puzzle, 0);
+        }
+        System.out.println(batch.solveAll());
+        System.out.println(new Board(batch.toIntBoard(batch.count() - 1)));
+    }
+}
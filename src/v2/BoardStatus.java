@@ -0,0 +1,41 @@
+package v2;
+
+/**
+ * Number of empty cells and of contradictions of a board, kept up to date by its cells and units
+ * at every change, so asking whether the board is solved or broken doesn't scan the cells.
+ * A contradiction is an empty cell without options, a number without a position in a unit that
+ * doesn't hold it yet, or a number placed twice in a unit. A rollback restores the cells through
+ * the same updates, so the counts follow it too.
+ */
+public class BoardStatus {
+
+    private int emptyCells;
+    private int contradictions;
+
+    public int getEmptyCells() {
+        return emptyCells;
+    }
+
+    public int getContradictions() {
+        return contradictions;
+    }
+
+    public boolean hasContradiction() {
+        return contradictions != 0;
+    }
+
+    /**
+     * @return true if every cell is filled without a contradiction
+     */
+    public boolean isSolved() {
+        return emptyCells == 0 && contradictions == 0;
+    }
+
+    void changeEmptyCells(int delta) {
+        emptyCells += delta;
+    }
+
+    void changeContradictions(int delta) {
+        contradictions += delta;
+    }
+}
@@ -214,6 +214,26 @@ public class BoardUtils {
         return counter;
     }
 
+    /**
+     * @return the board flattened row by row
+     */
+    public static int[] toCells(int[][] board){
+        int size = board.length;
+        int[] cells = new int[size * size];
+        for (int row = 0; row < size; row++) {
+            System.arraycopy(board[row], 0, cells, row * size, size);
+        }
+        return cells;
+    }
+
+    public static int[][] toIntBoard(int[] cells, int size){
+        int[][] board = new int[size][size];
+        for (int row = 0; row < size; row++) {
+            System.arraycopy(cells, row * size, board[row], 0, size);
+        }
+        return board;
+    }
+
     public static void main(String[] args) {
         System.out.println("Mini sudoku #empty cells: " + countEmptyCells(miniBoard));
         System.out.println("Empty sudoku #empty cells: " + countEmptyCells(emptyBoard));
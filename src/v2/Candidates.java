@@ -0,0 +1,52 @@
+package v2;
+
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Helpers for candidate sets packed into a primitive long.
+ * Digit d (1 based) is kept at bit d - 1, so boards of up to 63 digits fit in one mask.
+ */
+public class Candidates {
+
+    public static final int MAX_DIGITS = 63;
+
+    public static long of(int digit) {
+        return 1L << (digit - 1);
+    }
+
+    public static long full(int size) {
+        return (1L << size) - 1;
+    }
+
+    public static boolean contains(long mask, int digit) {
+        return (mask & of(digit)) != 0;
+    }
+
+    public static int count(long mask) {
+        return Long.bitCount(mask);
+    }
+
+    /**
+     * @return the smallest digit in the mask, the mask must not be empty
+     */
+    public static int lowestDigit(long mask) {
+        return Long.numberOfTrailingZeros(mask) + 1;
+    }
+
+    /**
+     * Builds a set view of the mask, only for callers that really need a collection.
+     * @return a new sorted set holding the digits of the mask
+     */
+    public static Set<Integer> toSet(long mask) {
+        Set<Integer> digits = new TreeSet<>();
+        for (long rest = mask; rest != 0; rest &= rest - 1) {
+            digits.add(lowestDigit(rest));
+        }
+        return digits;
+    }
+
+    public static String toString(long mask) {
+        return toSet(mask).toString();
+    }
+}
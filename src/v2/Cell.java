@@ -1,7 +1,8 @@
 package v2;
 
-import java.util.HashSet;
+import java.util.Arrays;
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Set;
 
 public class Cell {
@@ -10,29 +11,90 @@ public class Cell {
     private int row;
     private int column;
     private int boardSize;
-    private Set<Integer> ineligibles;
-    private Set<Integer> options;
-    private List<EliminatedRecord> eliminated;
-
+    private long options;
+    private EliminationSink eliminations;
+    private Trail trail;
+    private DigitPositions[] units;
+    private int[] positionsInUnits;
+    private int unitsCount;
+    private SinglesQueue singlesQueue;
+    private BoardStatus status;
+
+    /**
+     * Creates a cell that adds a record of every elimination to eliminatedRecords.
+     */
     public Cell(int value, int boardSize, int row, int column, List<EliminatedRecord> eliminatedRecords) {
+        this(value, boardSize, row, column, new EliminationRecords(eliminatedRecords));
+    }
+
+    public Cell(int value, int boardSize, int row, int column, EliminationSink eliminations) {
+        if(boardSize > Candidates.MAX_DIGITS){
+            throw new IllegalArgumentException("Board size " + boardSize + " is bigger than " + Candidates.MAX_DIGITS);
+        }
         this.value = value;
         this.row = row;
         this.column = column;
         this.boardSize = boardSize;
-        ineligibles = new HashSet<>();
-        options = new HashSet<>();
-        eliminated = eliminatedRecords;
-        if(value == 0){
-            for (int number = 1; number <= boardSize; number++) {
-                options.add(number);
+        this.eliminations = eliminations;
+        options = value == 0 ? Candidates.full(boardSize) : Candidates.of(value);
+        units = new DigitPositions[3];
+        positionsInUnits = new int[3];
+    }
+
+    /**
+     * Registers a unit that keeps the positions of the options of its cells,
+     * the cell reports every change of its options to the unit from now on.
+     */
+    void addUnit(DigitPositions unit, int position) {
+        if(unitsCount == units.length){
+            units = Arrays.copyOf(units, unitsCount * 2);
+            positionsInUnits = Arrays.copyOf(positionsInUnits, unitsCount * 2);
+        }
+        units[unitsCount] = unit;
+        positionsInUnits[unitsCount] = position;
+        unitsCount++;
+        unit.register(position, this);
+        unit.add(position, getActiveOptions());
+        if(value != 0){
+            unit.addValue(value);
+        }
+    }
+
+    /**
+     * @return the options a unit counts for the cell, a filled cell doesn't hold any
+     */
+    private long getActiveOptions() {
+        return value == 0 ? options : 0;
+    }
+
+    private void update(int newValue, long newOptions) {
+        long before = getActiveOptions();
+        int oldValue = value;
+        boolean wasDead = isDead();
+        value = newValue;
+        options = newOptions;
+        long after = getActiveOptions();
+        if(oldValue != newValue){
+            for (int unit = 0; unit < unitsCount; unit++) {
+                if(oldValue != 0)
+                    units[unit].removeValue(oldValue);
+                if(newValue != 0)
+                    units[unit].addValue(newValue);
+            }
+            if(status != null && (oldValue == 0) != (newValue == 0)){
+                status.changeEmptyCells(newValue == 0 ? 1 : -1);
             }
         }
-        else {
-            options.add(value);
-            for (int number = 1; number <= boardSize; number++) {
-                if(number != value){
-                    ineligibles.add(number);
-                }
+        if(status != null && wasDead != isDead()){
+            status.changeContradictions(wasDead ? -1 : 1);
+        }
+        if(before != after){
+            for (int unit = 0; unit < unitsCount; unit++) {
+                units[unit].remove(positionsInUnits[unit], before & ~after, singlesQueue);
+                units[unit].add(positionsInUnits[unit], after & ~before);
+            }
+            if(singlesQueue != null && Long.bitCount(after) == 1){
+                singlesQueue.add(this, Candidates.lowestDigit(after));
             }
         }
     }
@@ -50,39 +112,99 @@ public class Cell {
     }
 
     public int[] getBoxIndexes(){
-        int sqrtSize = (int) Math.sqrt(boardSize);
+        int sqrtSize = Topology.of(boardSize).getBoxSize();
         return new int[]{row / sqrtSize, column / sqrtSize};
     }
 
+    /**
+     * @return a new set holding the numbers that can't be placed in the cell
+     */
     public Set<Integer> getIneligibles() {
-        return ineligibles;
+        return Candidates.toSet(Candidates.full(boardSize) & ~options);
     }
 
+    /**
+     * @return a new set holding the numbers that can still be placed in the cell
+     */
     public Set<Integer> getOptions() {
+        return Candidates.toSet(options);
+    }
+
+    public long getOptionsMask() {
         return options;
     }
 
+    public int getOptionsCount() {
+        return Long.bitCount(options);
+    }
+
+    void setTrail(Trail trail) {
+        this.trail = trail;
+    }
+
+    void setEliminationSink(EliminationSink eliminations) {
+        this.eliminations = eliminations;
+    }
+
+    /**
+     * Starts reporting to the status, with the state the cell and its units already have.
+     */
+    void setStatus(BoardStatus status) {
+        this.status = status;
+        if(isEmpty())
+            status.changeEmptyCells(1);
+        if(isDead())
+            status.changeContradictions(1);
+        for (int unit = 0; unit < unitsCount; unit++) {
+            units[unit].setStatus(status);
+        }
+    }
+
+    void setSinglesQueue(SinglesQueue singlesQueue) {
+        this.singlesQueue = singlesQueue;
+    }
+
     public void setValue(int value) {
         if(this.value != 0)
             return;
-        this.value = value;
-        if(value != 0){
-            options.clear();
-            options.add(value);
-            ineligibles.clear();
-            for (int number = 1; number <= boardSize; number++) {
-                if(number != value){
-                    ineligibles.add(number);
-                }
-            }
+        saveToTrail();
+        update(value, value != 0 ? Candidates.of(value) : options);
+    }
+
+    /**
+     * Replaces the cell state, the change is saved to the trail so it can be rolled back.
+     */
+    void reset(int value, long options) {
+        saveToTrail();
+        update(value, options);
+    }
+
+    /**
+     * Puts back a state saved by the trail.
+     */
+    void restore(int value, long options) {
+        update(value, options);
+    }
+
+    private void saveToTrail() {
+        if(trail != null){
+            trail.save(this, value, options);
         }
     }
 
+    /**
+     * @param method name of the technique, see {@link Technique#ofMethod(String)}
+     */
     public void addIneligible(int ineligible, String method){
-        if(isEmpty() && !ineligibles.contains(ineligible)){
-            ineligibles.add(ineligible);
-            options.remove(ineligible);
-            eliminated.add(new EliminatedRecord(method, this, ineligible));
+        addIneligible(ineligible, Technique.ofMethod(method));
+    }
+
+    public void addIneligible(int ineligible, Technique technique){
+        long bit = Candidates.of(ineligible);
+        if(isEmpty() && (options & bit) != 0){
+            saveToTrail();
+            update(value, options & ~bit);
+            eliminations.eliminated(technique, this, ineligible);
         }
     }
 
@@ -90,26 +212,44 @@ public class Cell {
         return value == 0;
     }
 
+    /**
+     * @return true if the cell is empty and has no option left
+     */
+    public boolean isDead() {
+        return value == 0 && options == 0;
+    }
+
     public boolean isNakedSingle() {
-        return isEmpty() && options.size() == 1;
+        return isEmpty() && Long.bitCount(options) == 1;
     }
 
     public boolean hasOption(int num){
-        return options.contains(num);
+        return (options & Candidates.of(num)) != 0;
+    }
+
+    /**
+     * Like {@link #getOnlyOption()} without exceptions, for the strategies that ask every cell.
+     * @return the only option of the cell, or 0 if it has none or more than one
+     */
+    public int getSingleOption() {
+        return Long.bitCount(options) == 1 ? Candidates.lowestDigit(options) : 0;
     }
 
     public int getOnlyOption() throws ValueHaveFewOptionsException {
-        if(options.size() > 1){
-            throw new ValueHaveFewOptionsException(ineligibles.toString());
+        if(Long.bitCount(options) > 1){
+            throw new ValueHaveFewOptionsException(getIneligibles().toString());
+        }
+        if(options == 0){
+            throw new NoSuchElementException();
         }
-        return options.iterator().next();
+        return Candidates.lowestDigit(options);
     }
 
     @Override
     public String toString() {
         return "Value=" + value +
-                ", Options=" + options +
-                ", Ineligibles: " + ineligibles;
+                ", Options=" + getOptions() +
+                ", Ineligibles: " + getIneligibles();
     }
 
 }
@@ -7,6 +7,10 @@ public class Column extends Line {
         super(lineIndex, size, line, eliminatedRecords);
     }
 
+    public Column(int lineIndex, int size, Cell[] line) {
+        super(lineIndex, size, line);
+    }
+
     @Override
     protected int getRelevantIndex(Cell cell) {
         return cell.getRow();
@@ -0,0 +1,250 @@
+package v2;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Solves a corpus file of puzzles, one puzzle per line, and writes the solutions in the same order
+ * and format, one per line.
+ * Line formats:
+ * compact - one character per cell, '1'-'9' for a number and '0' or '.' for an empty cell,
+ * 81 characters for 9x9 (any size up to 9 whose square is the length of the line).
+ * delimited - numbers separated by ',', ';', spaces or tabs, '0' or '.' for an empty cell,
+ * size * size numbers for any size, used for 16x16 and 25x25, the solution is written with the
+ * first delimiter of the line.
+ * Delimiters at the start and end of a line are ignored.
+ * Empty lines, lines of delimiters only and lines starting with '#' are skipped. An unsolvable puzzle is written as it was read.
+ * The input is memory mapped region by region and parsed straight from the mapped bytes into one
+ * reusable int array per chunk of puzzles, the chunk is solved in parallel in place, and written
+ * through a reusable direct buffer, so the heap doesn't grow with the size of the corpus.
+ */
+public class CorpusSolver {
+
+    private static final long REGION_SIZE = 1L << 28;
+    private static final int PUZZLES_PER_CHUNK = 4096;
+    private static final int OUTPUT_BUFFER_SIZE = 1 << 20;
+
+    private final ForkJoinPool pool;
+    private int[] cells = new int[PUZZLES_PER_CHUNK * 81];
+    private final int[] offsets = new int[PUZZLES_PER_CHUNK];
+    private final int[] sizes = new int[PUZZLES_PER_CHUNK];
+    private final boolean[] compact = new boolean[PUZZLES_PER_CHUNK];
+    private final byte[] delimiters = new byte[PUZZLES_PER_CHUNK];
+    private final boolean[] solved = new boolean[PUZZLES_PER_CHUNK];
+    private final ByteBuffer output = ByteBuffer.allocateDirect(OUTPUT_BUFFER_SIZE);
+    private int puzzlesCount;
+    private int cellsCount;
+
+    public CorpusSolver() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param pool the pool that solves the puzzles, the caller owns it and shuts it down
+     */
+    public CorpusSolver(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Solves every puzzle of the input file and writes the solutions to the output file, replacing it.
+     * Not thread safe, solve one corpus at a time per instance.
+     * @return the report of the run
+     */
+    public BatchSolver.Report solve(Path input, Path output) throws IOException {
+        long start = System.nanoTime();
+        int boards = 0;
+        int solvedBoards = 0;
+        try (FileChannel in = FileChannel.open(input, StandardOpenOption.READ);
+             FileChannel out = FileChannel.open(output, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            long fileSize = in.size();
+            long position = 0;
+            this.output.clear();
+            while (position < fileSize) {
+                long length = Math.min(REGION_SIZE, fileSize - position);
+                MappedByteBuffer region = in.map(FileChannel.MapMode.READ_ONLY, position, length);
+                int end = (int) length;
+                if(position + length < fileSize){
+                    //the region ends at its last full line, the rest is mapped with the next region
+                    while (end > 0 && region.get(end - 1) != '\n') {
+                        end--;
+                    }
+                    if(end == 0){
+                        throw new IOException("Line longer than " + REGION_SIZE + " bytes at " + position);
+                    }
+                }
+                int index = 0;
+                while (index < end) {
+                    index = parseChunk(region, index, end, position);
+                    solveChunk();
+                    writeChunk(out);
+                    boards += puzzlesCount;
+                    for (int i = 0; i < puzzlesCount; i++) {
+                        if(solved[i])
+                            solvedBoards++;
+                    }
+                }
+                position += end;
+            }
+            flush(out);
+        }
+        return new BatchSolver.Report(boards, solvedBoards, System.nanoTime() - start);
+    }
+
+    /**
+     * Parses lines from index until the chunk is full or end is reached.
+     * @return the index after the last parsed line
+     */
+    private int parseChunk(ByteBuffer region, int index, int end, long regionPosition) throws IOException {
+        puzzlesCount = 0;
+        cellsCount = 0;
+        while (index < end && puzzlesCount < PUZZLES_PER_CHUNK) {
+            int lineEnd = index;
+            while (lineEnd < end && region.get(lineEnd) != '\n') {
+                lineEnd++;
+            }
+            int contentStart = index;
+            int contentEnd = lineEnd;
+            //a '\r' and delimiters around the cells would make a compact line look delimited
+            while (contentEnd > contentStart && (region.get(contentEnd - 1) == '\r' || isDelimiter(region.get(contentEnd - 1)))) {
+                contentEnd--;
+            }
+            while (contentStart < contentEnd && isDelimiter(region.get(contentStart))) {
+                contentStart++;
+            }
+            if(contentEnd > contentStart && region.get(contentStart) != '#'){
+                parseLine(region, contentStart, contentEnd, regionPosition);
+            }
+            index = lineEnd + 1;
+        }
+        return index;
+    }
+
+    private static boolean isDelimiter(byte b) {
+        return b == ',' || b == ';' || b == ' ' || b == '\t';
+    }
+
+    private void parseLine(ByteBuffer region, int start, int end, long regionPosition) throws IOException {
+        boolean isCompact = true;
+        byte delimiter = ',';
+        for (int i = start; i < end && isCompact; i++) {
+            if(isDelimiter(region.get(i))){
+                isCompact = false;
+                delimiter = region.get(i);
+            }
+        }
+        int offset = cellsCount;
+        int count = 0;
+        if(isCompact){
+            ensureCells(offset + end - start);
+            for (int i = start; i < end; i++) {
+                cells[offset + count++] = parseCell(region, i, i + 1, regionPosition);
+            }
+        }
+        else {
+            int i = start;
+            while (i < end) {
+                while (i < end && isDelimiter(region.get(i))) {
+                    i++;
+                }
+                int tokenStart = i;
+                while (i < end && !isDelimiter(region.get(i))) {
+                    i++;
+                }
+                if(i > tokenStart){
+                    ensureCells(offset + count + 1);
+                    cells[offset + count++] = parseCell(region, tokenStart, i, regionPosition);
+                }
+            }
+        }
+        if(count == 0)
+            return;
+        int size = (int) Math.round(Math.sqrt(count));
+        int boxSize = (int) Math.round(Math.sqrt(size));
+        if(size * size != count || boxSize * boxSize != size || size > (isCompact ? 9 : Candidates.MAX_DIGITS)){
+            throw new IOException("Line at " + (regionPosition + start) + " has " + count + " cells, not a square board");
+        }
+        for (int i = 0; i < count; i++) {
+            if(cells[offset + i] > size){
+                throw new IOException("Line at " + (regionPosition + start) + " has a value bigger than " + size);
+            }
+        }
+        offsets[puzzlesCount] = offset;
+        sizes[puzzlesCount] = size;
+        compact[puzzlesCount] = isCompact;
+        delimiters[puzzlesCount] = delimiter;
+        puzzlesCount++;
+        cellsCount += count;
+    }
+
+    private static int parseCell(ByteBuffer region, int start, int end, long regionPosition) throws IOException {
+        if(end - start == 1 && region.get(start) == '.')
+            return 0;
+        int value = 0;
+        for (int i = start; i < end; i++) {
+            byte b = region.get(i);
+            if(b < '0' || b > '9' || value > Candidates.MAX_DIGITS){
+                throw new IOException("Illegal cell at " + (regionPosition + start));
+            }
+            value = value * 10 + (b - '0');
+        }
+        return value;
+    }
+
+    private void ensureCells(int length) {
+        if(length > cells.length){
+            cells = Arrays.copyOf(cells, Math.max(length, cells.length * 2));
+        }
+    }
+
+    private void solveChunk() {
+        pool.submit(() -> IntStream.range(0, puzzlesCount).parallel().forEach(i ->
+                solved[i] = SolverContext.forCurrentThread(sizes[i]).solve(cells, offsets[i]) == SolveResult.SOLVED
+        )).join();
+    }
+
+    private void writeChunk(FileChannel out) throws IOException {
+        for (int i = 0; i < puzzlesCount; i++) {
+            int size = sizes[i];
+            int cellCount = size * size;
+            if(output.remaining() < cellCount * 3 + 1){
+                flush(out);
+            }
+            int offset = offsets[i];
+            for (int cell = 0; cell < cellCount; cell++) {
+                int value = cells[offset + cell];
+                if(!compact[i] && cell != 0){
+                    output.put(delimiters[i]);
+                }
+                if(value >= 10){
+                    output.put((byte) ('0' + value / 10));
+                }
+                output.put((byte) ('0' + value % 10));
+            }
+            output.put((byte) '\n');
+        }
+    }
+
+    private void flush(FileChannel out) throws IOException {
+        output.flip();
+        while (output.hasRemaining()) {
+            out.write(output);
+        }
+        output.clear();
+    }
+
+    public static void main(String[] args) throws IOException {
+        if(args.length != 2){
+            System.out.println("Usage: CorpusSolver <input> <output>");
+            return;
+        }
+        System.out.println(new CorpusSolver().solve(Path.of(args[0]), Path.of(args[1])));
+    }
+}
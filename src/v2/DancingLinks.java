@@ -0,0 +1,307 @@
+package v2;
+
+/**
+ * Exact cover engine (Knuth's Algorithm X with Dancing Links) for size x size boards.
+ * The board is encoded as an exact cover matrix with one row per (cell, number) option and
+ * four constraint columns per option: the cell is filled, and the number is placed once in the
+ * row, the column and the box.
+ * All nodes live in preallocated primitive arrays built once per instance, every call covers the
+ * givens, searches, and uncovers everything again, so one instance is reused for any number of
+ * boards of its size. An instance isn't thread safe, use one per thread.
+ */
+public class DancingLinks {
+
+    private final Topology topology;
+    private final int size;
+    private final int columnsCount;
+    private final int[] left;
+    private final int[] right;
+    private final int[] up;
+    private final int[] down;
+    private final int[] column;
+    private final int[] option;
+    private final int[] columnSize;
+    private final boolean[] covered;
+    private final int[] optionFirstNode;
+    private final int[] chosen;
+    private final int[] givens;
+    private int depth;
+    private int solutionsFound;
+    private int limit;
+    private long nodes;
+    private long maxNodes;
+    private long deadline;
+    private boolean budgetExceeded;
+    private int[] solution;
+    private int solutionOffset;
+
+    public DancingLinks(int size) {
+        topology = Topology.of(size);
+        this.size = size;
+        int cellCount = topology.getCellCount();
+        columnsCount = 4 * cellCount;
+        int optionsCount = cellCount * size;
+        int nodesCount = columnsCount + 1 + 4 * optionsCount;
+        left = new int[nodesCount];
+        right = new int[nodesCount];
+        up = new int[nodesCount];
+        down = new int[nodesCount];
+        column = new int[nodesCount];
+        option = new int[nodesCount];
+        columnSize = new int[columnsCount + 1];
+        covered = new boolean[columnsCount + 1];
+        optionFirstNode = new int[optionsCount];
+        chosen = new int[cellCount];
+        givens = new int[cellCount];
+        buildMatrix();
+    }
+
+    private void buildMatrix() {
+        for (int header = 0; header <= columnsCount; header++) {
+            left[header] = header == 0 ? columnsCount : header - 1;
+            right[header] = header == columnsCount ? 0 : header + 1;
+            up[header] = header;
+            down[header] = header;
+            column[header] = header;
+        }
+        int cellCount = topology.getCellCount();
+        int node = columnsCount + 1;
+        for (int cell = 0; cell < cellCount; cell++) {
+            int row = topology.rowOf(cell);
+            int col = topology.columnOf(cell);
+            int box = topology.boxOf(cell);
+            for (int digit = 0; digit < size; digit++) {
+                int optionIndex = cell * size + digit;
+                int[] headers = {
+                        1 + cell,
+                        1 + cellCount + row * size + digit,
+                        1 + 2 * cellCount + col * size + digit,
+                        1 + 3 * cellCount + box * size + digit
+                };
+                optionFirstNode[optionIndex] = node;
+                for (int i = 0; i < 4; i++) {
+                    int header = headers[i];
+                    column[node] = header;
+                    option[node] = optionIndex;
+                    up[node] = up[header];
+                    down[node] = header;
+                    down[up[header]] = node;
+                    up[header] = node;
+                    columnSize[header]++;
+                    left[node] = i == 0 ? node + 3 : node - 1;
+                    right[node] = i == 3 ? node - 3 : node + 1;
+                    node++;
+                }
+            }
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return number of search nodes visited by the last call
+     */
+    public long getNodes() {
+        return nodes;
+    }
+
+    private void cover(int header) {
+        covered[header] = true;
+        right[left[header]] = right[header];
+        left[right[header]] = left[header];
+        for (int i = down[header]; i != header; i = down[i]) {
+            for (int j = right[i]; j != i; j = right[j]) {
+                up[down[j]] = up[j];
+                down[up[j]] = down[j];
+                columnSize[column[j]]--;
+            }
+        }
+    }
+
+    private void uncover(int header) {
+        for (int i = up[header]; i != header; i = up[i]) {
+            for (int j = left[i]; j != i; j = left[j]) {
+                columnSize[column[j]]++;
+                up[down[j]] = j;
+                down[up[j]] = j;
+            }
+        }
+        right[left[header]] = header;
+        left[right[header]] = header;
+        covered[header] = false;
+    }
+
+    private void select(int node) {
+        cover(column[node]);
+        for (int j = right[node]; j != node; j = right[j]) {
+            cover(column[j]);
+        }
+    }
+
+    private void unselect(int node) {
+        for (int j = left[node]; j != node; j = left[j]) {
+            uncover(column[j]);
+        }
+        uncover(column[node]);
+    }
+
+    /**
+     * Covers the givens of the board.
+     * @return number of givens covered, or -1 if two givens contradict (they are uncovered again)
+     */
+    private int applyGivens(int[] cells, int offset) {
+        int cellCount = topology.getCellCount();
+        if(offset < 0 || cells.length - offset < cellCount){
+            throw new IllegalArgumentException("Expected " + cellCount + " cells from offset " + offset + ", got " + (cells.length - offset));
+        }
+        int givensCount = 0;
+        for (int cell = 0; cell < cellCount; cell++) {
+            int value = cells[offset + cell];
+            if(value == 0)
+                continue;
+            if(value < 0 || value > size){
+                removeGivens(givensCount);
+                throw new IllegalArgumentException("Illegal value " + value + " for a board of size " + size);
+            }
+            int node = optionFirstNode[cell * size + value - 1];
+            if(isOptionCovered(node)){
+                removeGivens(givensCount);
+                return -1;
+            }
+            select(node);
+            givens[givensCount++] = node;
+        }
+        return givensCount;
+    }
+
+    private boolean isOptionCovered(int node) {
+        for (int i = 0; i < 4; i++) {
+            if(covered[column[node + i]])
+                return true;
+        }
+        return false;
+    }
+
+    private void removeGivens(int givensCount) {
+        for (int i = givensCount - 1; i >= 0; i--) {
+            unselect(givens[i]);
+        }
+    }
+
+    private void search() {
+        if(right[0] == 0){
+            if(solutionsFound == 0 && solution != null){
+                for (int i = 0; i < depth; i++) {
+                    int optionIndex = option[chosen[i]];
+                    solution[solutionOffset + optionIndex / size] = optionIndex % size + 1;
+                }
+            }
+            solutionsFound++;
+            return;
+        }
+        if(nodes >= maxNodes || ((nodes & 1023) == 0 && System.nanoTime() > deadline)){
+            budgetExceeded = true;
+            return;
+        }
+        nodes++;
+        int best = right[0];
+        for (int header = right[best]; header != 0 && columnSize[best] > 1; header = right[header]) {
+            if(columnSize[header] < columnSize[best]){
+                best = header;
+            }
+        }
+        if(columnSize[best] == 0)
+            return;
+        cover(best);
+        for (int node = down[best]; node != best && solutionsFound < limit && !budgetExceeded; node = down[node]) {
+            chosen[depth++] = node;
+            for (int j = right[node]; j != node; j = right[j]) {
+                cover(column[j]);
+            }
+            search();
+            for (int j = left[node]; j != node; j = left[j]) {
+                uncover(column[j]);
+            }
+            depth--;
+        }
+        uncover(best);
+    }
+
+    private int run(int[] cells, int offset, int maxSolutions, boolean fill, SearchLimits limits) {
+        long start = System.nanoTime();
+        nodes = 0;
+        maxNodes = limits.maxNodes();
+        deadline = limits.maxNanos() > Long.MAX_VALUE - start ? Long.MAX_VALUE : start + limits.maxNanos();
+        budgetExceeded = false;
+        solutionsFound = 0;
+        depth = 0;
+        limit = maxSolutions;
+        solution = fill ? cells : null;
+        solutionOffset = offset;
+        int givensCount = applyGivens(cells, offset);
+        if(givensCount < 0)
+            return 0;
+        if(maxSolutions > 0){
+            search();
+        }
+        removeGivens(givensCount);
+        solution = null;
+        return budgetExceeded ? -1 : solutionsFound;
+    }
+
+    /**
+     * Counts the solutions of the board, stops as soon as limit solutions were found.
+     * @param cells the board, row by row, 0 for an empty cell
+     * @return number of solutions, at most limit
+     */
+    public int countSolutions(int[] cells, int limit) {
+        return run(cells, 0, limit, false, SearchLimits.UNLIMITED);
+    }
+
+    /**
+     * Counts the solutions of the board within a search budget.
+     * @return number of solutions, at most limit, or -1 if the budget ran out before the count was known
+     */
+    public int countSolutions(int[] cells, int limit, SearchLimits limits) {
+        return run(cells, 0, limit, false, limits);
+    }
+
+    public int countSolutions(int[][] intBoard, int limit) {
+        return countSolutions(BoardUtils.toCells(intBoard), limit);
+    }
+
+    /**
+     * Fills the empty cells with the first solution found.
+     * @param cells the board, row by row, 0 for an empty cell, filled in place when solved
+     * @return false if the board has no solution, the cells are left untouched
+     */
+    public boolean solve(int[] cells) {
+        return solve(cells, 0);
+    }
+
+    /**
+     * Like {@link #solve(int[])} for a board stored from offset inside a bigger array, such as a batch of boards.
+     */
+    public boolean solve(int[] cells, int offset) {
+        return run(cells, offset, 1, true, SearchLimits.UNLIMITED) > 0;
+    }
+
+    /**
+     * @return a solved copy of the board, or null if it has no solution
+     */
+    public int[][] solve(int[][] intBoard) {
+        int[] cells = BoardUtils.toCells(intBoard);
+        if(!solve(cells))
+            return null;
+        return BoardUtils.toIntBoard(cells, size);
+    }
+
+    public static void main(String[] args) {
+        DancingLinks dancingLinks = new DancingLinks(9);
+        int[][] solved = dancingLinks.solve(BoardUtils.evilBoard);
+        System.out.println(new Board(solved));
+        System.out.println("Solutions of the empty board (up to 10): " + dancingLinks.countSolutions(BoardUtils.emptyBoard, 10));
+    }
+}
@@ -0,0 +1,145 @@
+package v2;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * For every number, the bitmask of the positions in a unit (line or box) whose empty cell
+ * still holds the number as an option.
+ * The cells keep it up to date on every change, so the unit never has to rescan its cells.
+ * The version grows on every change, strategies compare it to skip units that didn't change.
+ * When a number is left with a single position, the cell is added to the singles queue.
+ * It also counts the cells holding every number, and reports to the board status the numbers
+ * that lost all their positions without being placed, or that were placed twice.
+ */
+public class DigitPositions {
+
+    private final long[] positions;
+    private final Cell[] cells;
+    private final int[] placed;
+    private int version;
+    private BoardStatus status;
+
+    public DigitPositions(int boardSize) {
+        positions = new long[boardSize + 1];
+        cells = new Cell[boardSize];
+        placed = new int[boardSize + 1];
+    }
+
+    /**
+     * Starts reporting contradictions to the status, counting the ones the unit already has.
+     */
+    void setStatus(BoardStatus status) {
+        if(this.status == status)
+            return;
+        this.status = status;
+        int contradictions = 0;
+        for (int digit = 1; digit < positions.length; digit++) {
+            contradictions += contradictions(digit);
+        }
+        status.changeContradictions(contradictions);
+    }
+
+    private int contradictions(int digit) {
+        int count = placed[digit];
+        return (count == 0 && positions[digit] == 0 ? 1 : 0) + (count > 1 ? count - 1 : 0);
+    }
+
+    public Cell getCell(int position) {
+        return cells[position];
+    }
+
+    void register(int position, Cell cell) {
+        cells[position] = cell;
+    }
+
+    public long get(int digit) {
+        return positions[digit];
+    }
+
+    public int count(int digit) {
+        return Long.bitCount(positions[digit]);
+    }
+
+    /**
+     * A number with a single position in the unit is a Hidden Single of the empty cell there.
+     * A cell that is the single position of more than one number is a contradiction, not a single,
+     * and isn't reported.
+     * @return the hidden singles of the unit, in the order of their positions
+     */
+    public List<CellRecord> getHiddenSingles() {
+        long unique = 0;
+        for (int digit = 1; digit < positions.length; digit++) {
+            if(Long.bitCount(positions[digit]) == 1){
+                unique |= Candidates.of(digit);
+            }
+        }
+        List<CellRecord> singles = new ArrayList<>();
+        for (Cell cell : cells) {
+            if(cell.isEmpty()){
+                long hiddenOptions = cell.getOptionsMask() & unique;
+                if(Long.bitCount(hiddenOptions) == 1){
+                    singles.add(new CellRecord(cell, Candidates.lowestDigit(hiddenOptions)));
+                }
+            }
+        }
+        return singles;
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    void add(int position, long options) {
+        if(options == 0)
+            return;
+        version++;
+        long bit = 1L << position;
+        for (long rest = options; rest != 0; rest &= rest - 1) {
+            int digit = Candidates.lowestDigit(rest);
+            if(status != null && positions[digit] == 0 && placed[digit] == 0){
+                status.changeContradictions(-1);
+            }
+            positions[digit] |= bit;
+        }
+    }
+
+    /**
+     * A cell of the unit was filled with the digit.
+     */
+    void addValue(int digit) {
+        int before = status != null ? contradictions(digit) : 0;
+        placed[digit]++;
+        if(status != null){
+            status.changeContradictions(contradictions(digit) - before);
+        }
+    }
+
+    /**
+     * A cell of the unit holding the digit was emptied.
+     */
+    void removeValue(int digit) {
+        int before = status != null ? contradictions(digit) : 0;
+        placed[digit]--;
+        if(status != null){
+            status.changeContradictions(contradictions(digit) - before);
+        }
+    }
+
+    void remove(int position, long options, SinglesQueue singlesQueue) {
+        if(options == 0)
+            return;
+        version++;
+        long bit = ~(1L << position);
+        for (long rest = options; rest != 0; rest &= rest - 1) {
+            int digit = Candidates.lowestDigit(rest);
+            positions[digit] &= bit;
+            if(status != null && positions[digit] == 0 && placed[digit] == 0){
+                status.changeContradictions(1);
+            }
+            if(singlesQueue != null && Long.bitCount(positions[digit]) == 1){
+                singlesQueue.addHidden(cells[Long.numberOfTrailingZeros(positions[digit])], digit);
+            }
+        }
+    }
+}
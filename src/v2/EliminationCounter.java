@@ -0,0 +1,26 @@
+package v2;
+
+/**
+ * Counts the eliminations and keeps nothing else.
+ */
+public class EliminationCounter implements EliminationSink {
+
+    private int count;
+
+    @Override
+    public void eliminated(Technique technique, Cell cell, int value) {
+        count++;
+    }
+
+    @Override
+    public int count() {
+        return count;
+    }
+
+    @Override
+    public void truncate(int count) {
+        if(count < this.count){
+            this.count = count;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package v2;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Keeps every elimination packed in one long, without a reference to the cell:
+ * bits 0-7 the eliminated value, 8-15 the technique ordinal, 16-31 the column, 32-47 the row.
+ * Records are only made on request, by {@link #toRecords(Board)}.
+ */
+public class EliminationLog implements EliminationSink {
+
+    private static final Technique[] TECHNIQUES = Technique.values();
+
+    private long[] entries;
+    private int length;
+
+    public EliminationLog() {
+        this(256);
+    }
+
+    public EliminationLog(int initialCapacity) {
+        entries = new long[Math.max(initialCapacity, 16)];
+    }
+
+    @Override
+    public void eliminated(Technique technique, Cell cell, int value) {
+        if(length == entries.length){
+            entries = Arrays.copyOf(entries, length * 2);
+        }
+        entries[length++] = (long) cell.getRow() << 32 | (long) cell.getColumn() << 16 | technique.ordinal() << 8 | value;
+    }
+
+    @Override
+    public int count() {
+        return length;
+    }
+
+    @Override
+    public void truncate(int count) {
+        if(count < length){
+            length = count;
+        }
+    }
+
+    public void clear() {
+        length = 0;
+    }
+
+    public int getValue(int index) {
+        return (int) (entry(index) & 0xFF);
+    }
+
+    public Technique getTechnique(int index) {
+        return TECHNIQUES[(int) (entry(index) >>> 8 & 0xFF)];
+    }
+
+    public int getColumn(int index) {
+        return (int) (entry(index) >>> 16 & 0xFFFF);
+    }
+
+    public int getRow(int index) {
+        return (int) (entry(index) >>> 32 & 0xFFFF);
+    }
+
+    private long entry(int index) {
+        if(index < 0 || index >= length){
+            throw new IndexOutOfBoundsException("Elimination " + index + " out of " + length);
+        }
+        return entries[index];
+    }
+
+    /**
+     * @param board the board whose eliminations were logged, it gives the cells of the records
+     * @return the eliminations as records, in the order they were made
+     */
+    public List<EliminatedRecord> toRecords(Board board) {
+        List<EliminatedRecord> records = new ArrayList<>(length);
+        for (int index = 0; index < length; index++) {
+            records.add(new EliminatedRecord(getTechnique(index).getDisplayName(), board.getCell(getRow(index), getColumn(index)), getValue(index)));
+        }
+        return records;
+    }
+}
@@ -0,0 +1,36 @@
+package v2;
+
+import java.util.List;
+
+/**
+ * Adds an {@link EliminatedRecord} to a list for every elimination.
+ */
+public class EliminationRecords implements EliminationSink {
+
+    private final List<EliminatedRecord> records;
+
+    public EliminationRecords(List<EliminatedRecord> records) {
+        this.records = records;
+    }
+
+    public List<EliminatedRecord> getRecords() {
+        return records;
+    }
+
+    @Override
+    public void eliminated(Technique technique, Cell cell, int value) {
+        records.add(new EliminatedRecord(technique.getDisplayName(), cell, value));
+    }
+
+    @Override
+    public int count() {
+        return records.size();
+    }
+
+    @Override
+    public void truncate(int count) {
+        while (records.size() > count) {
+            records.remove(records.size() - 1);
+        }
+    }
+}
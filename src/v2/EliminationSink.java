@@ -0,0 +1,22 @@
+package v2;
+
+/**
+ * Receives every option a cell loses to a technique.
+ * The board only needs the number of eliminations to see whether an iteration made progress, so
+ * its default sink is an {@link EliminationCounter}; an {@link EliminationLog} keeps them all to
+ * explain a solve, and {@link EliminationRecords} adds them to a list of records.
+ */
+public interface EliminationSink {
+
+    void eliminated(Technique technique, Cell cell, int value);
+
+    /**
+     * @return number of eliminations received and not truncated
+     */
+    int count();
+
+    /**
+     * Forgets the eliminations received after the first count ones, used when a board rolls back.
+     */
+    void truncate(int count);
+}
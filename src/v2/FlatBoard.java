@@ -0,0 +1,378 @@
+package v2;
+
+import java.util.Arrays;
+
+/**
+ * Board engine that keeps the whole state in flat primitive arrays indexed by cell number
+ * (row * size + column), instead of the Cell/Row/Column/Box object graph used by {@link Board}.
+ * Rows, columns and boxes are the precomputed index ranges of the shared {@link Topology}.
+ * It runs Naked and Hidden Singles, Naked Pairs, Triples and Quads, Hidden Pairs, Pointing and
+ * Claiming Pairs and X-Wings, and prints the same way as {@link Board}. Unlike {@link Board#solve()}
+ * it doesn't look for Hidden Triples and Quads or for subsets larger than a quad.
+ */
+public class FlatBoard {
+
+    private final Topology topology;
+    private final int size;
+    private final int sqrtSize;
+    private final int[] values;
+    private final long[] candidates;
+    private final int[] subsetMembers;
+    private final int[] subsetChosen;
+    private final long[] valuePositions;
+    private long eliminations;
+
+    public FlatBoard(int[][] intBoard) {
+        this(intBoard.length);
+        reset(BoardUtils.toCells(intBoard));
+    }
+
+    /**
+     * Creates an empty board, fill it with {@link #reset(int[])}.
+     */
+    public FlatBoard(int size) {
+        topology = Topology.of(size);
+        this.size = size;
+        sqrtSize = topology.getBoxSize();
+        values = new int[topology.getCellCount()];
+        candidates = new long[topology.getCellCount()];
+        subsetMembers = new int[size];
+        subsetChosen = new int[size];
+        valuePositions = new long[size + 1];
+        Arrays.fill(candidates, Candidates.full(size));
+    }
+
+    /**
+     * Clears the board and puts the givens, so one board can be reused for many puzzles.
+     * @param cells the givens row by row, 0 for an empty cell
+     */
+    public void reset(int[] cells) {
+        if(cells.length != values.length){
+            throw new IllegalArgumentException("Expected " + values.length + " cells, got " + cells.length);
+        }
+        Arrays.fill(values, 0);
+        Arrays.fill(candidates, Candidates.full(size));
+        eliminations = 0;
+        for (int cell = 0; cell < cells.length; cell++) {
+            if(cells[cell] != 0){
+                putNumber(cell, cells[cell]);
+            }
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int getValue(int row, int column) {
+        return values[row * size + column];
+    }
+
+    public long getOptionsMask(int row, int column) {
+        return candidates[row * size + column];
+    }
+
+    /**
+     * Copies the values, row by row, into target.
+     */
+    public void copyValues(int[] target) {
+        System.arraycopy(values, 0, target, 0, values.length);
+    }
+
+    public int[][] toIntBoard() {
+        int[][] intBoard = new int[size][size];
+        for (int row = 0; row < size; row++) {
+            System.arraycopy(values, row * size, intBoard[row], 0, size);
+        }
+        return intBoard;
+    }
+
+    private void putNumber(int cell, int value) {
+        values[cell] = value;
+        candidates[cell] = Candidates.of(value);
+        for (int peer = 0; peer < topology.getPeerCount(); peer++) {
+            eliminate(topology.peer(cell, peer), value);
+        }
+    }
+
+    private void eliminate(int cell, int value) {
+        long bit = Candidates.of(value);
+        if(values[cell] == 0 && (candidates[cell] & bit) != 0){
+            candidates[cell] &= ~bit;
+            eliminations++;
+        }
+    }
+
+    private void eliminateMask(int cell, long mask) {
+        for (long rest = mask & candidates[cell]; rest != 0; rest &= rest - 1) {
+            eliminate(cell, Candidates.lowestDigit(rest));
+        }
+    }
+
+    private boolean revealNakedSingles() {
+        boolean revealed = false;
+        for (int cell = 0; cell < values.length; cell++) {
+            if(values[cell] == 0 && Long.bitCount(candidates[cell]) == 1){
+                putNumber(cell, Candidates.lowestDigit(candidates[cell]));
+                revealed = true;
+            }
+        }
+        return revealed;
+    }
+
+    private boolean revealHiddenSingles() {
+        boolean revealed = false;
+        for (int unit = 0; unit < topology.getUnitCount(); unit++) {
+            long seenOnce = 0;
+            long seenMore = 0;
+            for (int i = 0; i < size; i++) {
+                int cell = topology.unitCell(unit, i);
+                if(values[cell] == 0){
+                    seenMore |= seenOnce & candidates[cell];
+                    seenOnce |= candidates[cell];
+                }
+            }
+            long unique = seenOnce & ~seenMore;
+            for (int i = 0; i < size && unique != 0; i++) {
+                int cell = topology.unitCell(unit, i);
+                long hidden = candidates[cell] & unique;
+                if(values[cell] == 0 && hidden != 0){
+                    int value = Candidates.lowestDigit(hidden);
+                    putNumber(cell, value);
+                    unique &= ~Candidates.of(value);
+                    revealed = true;
+                }
+            }
+        }
+        return revealed;
+    }
+
+    /**
+     * k empty cells in a unit whose options together hold exactly k numbers are a Naked subset,
+     * the k numbers can be eliminated from the rest of the unit.
+     */
+    private void eliminateNakedSubsets(int unit, int subsetSize) {
+        int[] members = subsetMembers;
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            int cell = topology.unitCell(unit, i);
+            int options = Long.bitCount(candidates[cell]);
+            if(values[cell] == 0 && options > 1 && options <= subsetSize){
+                members[count++] = cell;
+            }
+        }
+        if(count > subsetSize) {
+            lookForNakedSubset(unit, members, count, subsetSize, 0, 0, 0L, subsetChosen);
+        }
+    }
+
+    private void lookForNakedSubset(int unit, int[] members, int count, int subsetSize, int from, int depth, long union, int[] chosen) {
+        if(depth == subsetSize){
+            for (int i = 0; i < size; i++) {
+                int cell = topology.unitCell(unit, i);
+                if(values[cell] == 0 && !isChosen(cell, chosen, subsetSize)){
+                    eliminateMask(cell, union);
+                }
+            }
+            return;
+        }
+        for (int index = from; index < count; index++) {
+            long newUnion = union | candidates[members[index]];
+            if(Long.bitCount(newUnion) <= subsetSize){
+                chosen[depth] = members[index];
+                lookForNakedSubset(unit, members, count, subsetSize, index + 1, depth + 1, newUnion, chosen);
+            }
+        }
+    }
+
+    private boolean isChosen(int cell, int[] chosen, int chosenCount) {
+        for (int i = 0; i < chosenCount; i++) {
+            if(chosen[i] == cell)
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * @return bitmask of the positions inside the unit that still hold the value as an option
+     */
+    private long getPositionsMask(int unit, int value) {
+        long bit = Candidates.of(value);
+        long positions = 0;
+        for (int i = 0; i < size; i++) {
+            int cell = topology.unitCell(unit, i);
+            if(values[cell] == 0 && (candidates[cell] & bit) != 0){
+                positions |= 1L << i;
+            }
+        }
+        return positions;
+    }
+
+    /**
+     * Two numbers that appear only in the same two cells of a unit are a Hidden Pair,
+     * all other options of those cells can be eliminated.
+     */
+    private void eliminateHiddenPairs(int unit) {
+        long[] positions = valuePositions;
+        for (int value = 1; value <= size; value++) {
+            positions[value] = getPositionsMask(unit, value);
+        }
+        for (int value1 = 1; value1 < size; value1++) {
+            if(Long.bitCount(positions[value1]) != 2)
+                continue;
+            for (int value2 = value1 + 1; value2 <= size; value2++) {
+                if(positions[value1] == positions[value2]){
+                    long pairOptions = Candidates.of(value1) | Candidates.of(value2);
+                    for (long rest = positions[value1]; rest != 0; rest &= rest - 1) {
+                        int cell = topology.unitCell(unit, Long.numberOfTrailingZeros(rest));
+                        eliminateMask(cell, ~pairOptions);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Box-line intersections: when a number inside a box is limited to one row (column) the number
+     * is eliminated from the rest of that row (column) (Pointing Pair), and when a number inside a
+     * row (column) is limited to one box it is eliminated from the rest of that box (Claiming Pair).
+     */
+    private void eliminateIntersections(int unit, int otherUnitOffset) {
+        for (int value = 1; value <= size; value++) {
+            long positions = getPositionsMask(unit, value);
+            if(Long.bitCount(positions) < 2)
+                continue;
+            int firstCell = topology.unitCell(unit, Long.numberOfTrailingZeros(positions));
+            int target = -1;
+            for (int other = otherUnitOffset; other < 3 && target == -1; other++) {
+                int candidateUnit = topology.unitOf(firstCell, other);
+                if(candidateUnit != unit && containsAll(candidateUnit, unit, positions)){
+                    target = candidateUnit;
+                }
+            }
+            if(target == -1)
+                continue;
+            for (int i = 0; i < size; i++) {
+                int cell = topology.unitCell(target, i);
+                if(!topology.isInUnit(cell, unit)){
+                    eliminate(cell, value);
+                }
+            }
+        }
+    }
+
+    private boolean containsAll(int targetUnit, int unit, long positions) {
+        for (long rest = positions; rest != 0; rest &= rest - 1) {
+            int cell = topology.unitCell(unit, Long.numberOfTrailingZeros(rest));
+            if(!topology.isInUnit(cell, targetUnit))
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * When a number appears in exactly two positions in two lines and the positions match,
+     * it is eliminated from the crossing lines (X-Wing).
+     */
+    private void eliminateWithXWings(int lineOffset, int crossOffset) {
+        for (int value = 1; value <= size; value++) {
+            for (int line1 = 0; line1 < size - 1; line1++) {
+                long positions1 = getPositionsMask(lineOffset + line1, value);
+                if(Long.bitCount(positions1) != 2)
+                    continue;
+                for (int line2 = line1 + 1; line2 < size; line2++) {
+                    if(positions1 != getPositionsMask(lineOffset + line2, value))
+                        continue;
+                    for (long rest = positions1; rest != 0; rest &= rest - 1) {
+                        int crossLine = crossOffset + Long.numberOfTrailingZeros(rest);
+                        for (int i = 0; i < size; i++) {
+                            if(i != line1 && i != line2){
+                                eliminate(topology.unitCell(crossLine, i), value);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private boolean isSolved() {
+        for (int value : values) {
+            if(value == 0)
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * @return true if an empty cell has no options left
+     */
+    public boolean hasContradiction() {
+        for (int cell = 0; cell < values.length; cell++) {
+            if(values[cell] == 0 && candidates[cell] == 0)
+                return true;
+        }
+        return false;
+    }
+
+    public boolean solve() {
+        while (!isSolved()){
+            long eliminationBeforeIteration = eliminations;
+            while (revealNakedSingles() || revealHiddenSingles()){
+            }
+            for (int unit = 0; unit < topology.getUnitCount(); unit++) {
+                for (int subsetSize = 2; subsetSize <= 4; subsetSize++) {
+                    eliminateNakedSubsets(unit, subsetSize);
+                }
+                eliminateHiddenPairs(unit);
+            }
+            for (int box = 0; box < size; box++) {
+                eliminateIntersections(topology.boxUnit(box), 0);
+            }
+            for (int line = 0; line < 2 * size; line++) {
+                eliminateIntersections(line, 2);
+            }
+            eliminateWithXWings(0, size);
+            eliminateWithXWings(size, 0);
+            if(hasContradiction()){
+                // There are errors on this solve, some cells have 0 options.
+                return false;
+            }
+            if(eliminationBeforeIteration == eliminations && !isSolved()){
+                //no elimination made on the current iteration
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < size; i++) {
+            if(i != 0 && i % sqrtSize == 0){
+                for (int j = 0; j <= size * 2; j++) {
+                    sb.append("--");
+                }
+                sb.append("\n");
+            }
+            for (int j = 0; j < size; j++) {
+                if(j != 0 && j % sqrtSize == 0){
+                    sb.append("|");
+                }
+                sb.append(values[i * size + j]).append("\t");
+            }
+            sb.append("\n");
+        }
+        return sb.toString();
+    }
+
+    public static void main(String[] args) {
+        FlatBoard board = new FlatBoard(BoardUtils.simpleBoard1);
+        System.out.println(board);
+        System.out.println();
+        System.out.println();
+        board.solve();
+        System.out.println(board);
+    }
+}
@@ -0,0 +1,161 @@
+package v2;
+
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+/**
+ * Makes new solved grids out of a few seed grids with transformations that keep a grid valid:
+ * relabelling the numbers, permuting the rows inside their band and the bands, permuting the
+ * columns inside their stack and the stacks, and transposing.
+ * Every grid costs one pass over its cells, written straight into the caller's buffer, far
+ * cheaper than generating it with {@link SudokuGridGenerator}.
+ * An instance isn't thread safe, {@link #split()} gives another thread its own random stream and
+ * {@link #generate(int, GridConsumer)} splits the work over the common ForkJoinPool.
+ */
+public class GridTransformer {
+
+    /**
+     * Receives the generated grids, the buffer is reused for the next grid of the same worker.
+     */
+    @FunctionalInterface
+    public interface GridConsumer {
+        void accept(int index, int[] grid);
+    }
+
+    private static final int GRIDS_PER_TASK = 1024;
+
+    private final int size;
+    private final int boxSize;
+    private final int[][] seedGrids;
+    private final SplittableRandom random;
+    private final int[] numberMap;
+    private final int[] rowMap;
+    private final int[] columnMap;
+    private final int[] boxMap;
+
+    /**
+     * @param seedGrids solved grids of the same size, row by row
+     * @param seed seed of the random stream, the same seed gives the same grids
+     */
+    public GridTransformer(int size, int[][] seedGrids, long seed) {
+        this(size, seedGrids, new SplittableRandom(seed));
+    }
+
+    private GridTransformer(int size, int[][] seedGrids, SplittableRandom random) {
+        Topology topology = Topology.of(size);
+        if(seedGrids.length == 0){
+            throw new IllegalArgumentException("At least one seed grid is needed");
+        }
+        for (int[] seedGrid : seedGrids) {
+            if(seedGrid.length != topology.getCellCount()){
+                throw new IllegalArgumentException("Expected " + topology.getCellCount() + " cells, got " + seedGrid.length);
+            }
+        }
+        this.size = size;
+        this.boxSize = topology.getBoxSize();
+        this.seedGrids = seedGrids;
+        this.random = random;
+        numberMap = new int[size + 1];
+        rowMap = new int[size];
+        columnMap = new int[size];
+        boxMap = new int[boxSize];
+    }
+
+    public GridTransformer split() {
+        return new GridTransformer(size, seedGrids, random.split());
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Writes the next grid into target.
+     */
+    public void next(int[] target) {
+        next(target, 0);
+    }
+
+    /**
+     * Writes the next grid into target, starting at offset, so a big buffer can hold many grids.
+     */
+    public void next(int[] target, int offset) {
+        int[] seedGrid = seedGrids[seedGrids.length == 1 ? 0 : random.nextInt(seedGrids.length)];
+        for (int number = 1; number <= size; number++) {
+            numberMap[number] = number;
+        }
+        shuffle(numberMap, 1, size);
+        shuffleLines(rowMap);
+        shuffleLines(columnMap);
+        boolean transpose = random.nextBoolean();
+        int index = offset;
+        for (int row = 0; row < size; row++) {
+            int sourceRow = rowMap[row];
+            for (int column = 0; column < size; column++) {
+                int source = transpose ? columnMap[column] * size + sourceRow : sourceRow * size + columnMap[column];
+                target[index++] = numberMap[seedGrid[source]];
+            }
+        }
+    }
+
+    /**
+     * Fills lineMap with a permutation of the lines that keeps every band (or stack) together.
+     */
+    private void shuffleLines(int[] lineMap) {
+        for (int box = 0; box < boxSize; box++) {
+            boxMap[box] = box;
+        }
+        shuffle(boxMap, 0, boxSize);
+        for (int box = 0; box < boxSize; box++) {
+            int start = box * boxSize;
+            for (int i = 0; i < boxSize; i++) {
+                lineMap[start + i] = boxMap[box] * boxSize + i;
+            }
+            shuffle(lineMap, start, boxSize);
+        }
+    }
+
+    private void shuffle(int[] array, int start, int length) {
+        for (int i = length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int temp = array[start + i];
+            array[start + i] = array[start + j];
+            array[start + j] = temp;
+        }
+    }
+
+    /**
+     * Generates count grids in parallel and hands every grid to the consumer, which may be called
+     * from several threads at once.
+     * The work is cut into tasks of a fixed number of grids, each with its own split of this
+     * transformer made up front, so grid i is the same whatever the number of threads.
+     */
+    public void generate(int count, GridConsumer consumer) {
+        int tasks = (count + GRIDS_PER_TASK - 1) / GRIDS_PER_TASK;
+        GridTransformer[] transformers = new GridTransformer[tasks];
+        for (int task = 0; task < tasks; task++) {
+            transformers[task] = split();
+        }
+        IntStream.range(0, tasks).parallel().forEach(task -> {
+            GridTransformer transformer = transformers[task];
+            int[] grid = new int[size * size];
+            int end = Math.min(count, (task + 1) * GRIDS_PER_TASK);
+            for (int index = task * GRIDS_PER_TASK; index < end; index++) {
+                transformer.next(grid);
+                consumer.accept(index, grid);
+            }
+        });
+    }
+
+    public static void main(String[] args) {
+        int size = 9;
+        int[] seedGrid = new SudokuGridGenerator(1).generateGrid(size);
+        GridTransformer transformer = new GridTransformer(size, new int[][]{seedGrid}, 1);
+        int count = 10_000_000;
+        long[] checksums = new long[(count + GRIDS_PER_TASK - 1) / GRIDS_PER_TASK];
+        long start = System.nanoTime();
+        transformer.generate(count, (index, grid) -> checksums[index / GRIDS_PER_TASK] += grid[index % grid.length]);
+        long nanos = System.nanoTime() - start;
+        System.out.println(count + " grids of size " + size + " in " + nanos / 1_000_000 + " ms, " + (long) (count / (nanos / 1e9)) + " grids per second");
+    }
+}
@@ -1,20 +1,38 @@
 package v2;
 
 import java.util.*;
-import java.util.stream.Collectors;
 
 public abstract class Line implements SudokuFrame{
 
     protected int lineIndex;
     protected int size;
+    protected int sqrtSize;
     protected Cell[] line;
-    private List<EliminatedRecord> eliminated;
+    protected DigitPositions positions;
+    protected SubsetFinder subsets;
 
+    /**
+     * Creates a line whose cells add a record of every elimination to eliminatedRecords, instead of
+     * the sink they were created with.
+     */
     public Line(int lineIndex, int size, Cell[] line, List<EliminatedRecord> eliminatedRecords) {
+        this(lineIndex, size, line);
+        EliminationSink eliminations = new EliminationRecords(eliminatedRecords);
+        for (Cell cell : line) {
+            cell.setEliminationSink(eliminations);
+        }
+    }
+
+    public Line(int lineIndex, int size, Cell[] line) {
         this.lineIndex = lineIndex;
         this.size = size;
+        this.sqrtSize = Topology.of(size).getBoxSize();
         this.line = line;
-        this.eliminated = eliminatedRecords;
+        positions = new DigitPositions(size);
+        for (int index = 0; index < size; index++) {
+            line[index].addUnit(positions, index);
+        }
+        subsets = new SubsetFinder(positions, size);
     }
 
     protected abstract int getRelevantIndex(Cell cell);
@@ -31,14 +49,20 @@ public abstract class Line implements SudokuFrame{
         return size;
     }
 
-    public List<EliminatedRecord> putNumber(int indexToPut, int number) {
+    /**
+     * @return a number that changes whenever a cell of the unit changes
+     */
+    public int getVersion() {
+        return positions.getVersion();
+    }
+
+    public void putNumber(int indexToPut, int number) {
         line[indexToPut].setValue(number);
         for (int index = 0; index < size; index++) {
             if(index != indexToPut) {
-                line[index].addIneligible(number,"Line Put Number");
+                line[index].addIneligible(number,Technique.PLACEMENT);
             }
         }
-        return eliminated;
     }
 
     /**
@@ -53,10 +77,7 @@ public abstract class Line implements SudokuFrame{
         List<CellRecord> res = new ArrayList<>();
         for (int index = 0; index < size; index++) {
             if(line[index].isNakedSingle()) {
-                try {
-                    res.add(new CellRecord(line[index], line[index].getOnlyOption()));
-                } catch (ValueHaveFewOptionsException ignore) {
-                }
+                res.add(new CellRecord(line[index], line[index].getSingleOption()));
             }
         }
         return res;
@@ -72,33 +93,7 @@ public abstract class Line implements SudokuFrame{
      * @return List<Cell> all the hidden singles (after update) in the line
      */
     public List<CellRecord> getHiddenSingles() {
-        List<CellRecord> res = new ArrayList<>();
-        for (int index = 0; index < size; index++) {
-            Integer hiddenSingleForIndex = getHiddenSingleForIndex(index);
-            if(hiddenSingleForIndex != null){
-                res.add(new CellRecord(line[index], hiddenSingleForIndex));
-            }
-        }
-        return res;
-    }
-
-    private Integer getHiddenSingleForIndex(int cellIndex) {
-        if(!line[cellIndex].isEmpty())
-            return null;
-        Set<Integer> cellOptions = new HashSet<>(line[cellIndex].getOptions());
-        Set<Integer> othersOptions = new HashSet<>();
-        for (int index = 0; index < size; index++) {
-            if(line[index].isEmpty() && index != cellIndex){
-                othersOptions.addAll(line[index].getOptions());
-            }
-        }
-        cellOptions.removeAll(othersOptions);
-        if(cellOptions.size() == 1){
-            return cellOptions.iterator().next();
-        }
-        else{
-            return null;
-        }
+        return positions.getHiddenSingles();
     }
 
     /**
@@ -110,31 +105,7 @@ public abstract class Line implements SudokuFrame{
      * @return List<Cell[]> list of naked pairs
      */
     public List<Cell[]> getNakedPairs() {
-        List<Cell[]> res = new ArrayList<>();
-        for (int index1 = 0; index1 < size - 1; index1++) {
-            for (int index2 = index1 + 1; index2 < size; index2++) {
-                if(line[index1].getOptions().size() == 2 && line[index1].getOptions().equals(line[index2].getOptions())){
-                    Cell[] pair = {line[index1], line[index2]};
-                    res.add(pair);
-                }
-            }
-        }
-        updateAfterNakedPair(res);
-        return res;
-    }
-
-    private List<EliminatedRecord> updateAfterNakedPair(List<Cell[]> res){
-        for (Cell[] pair : res) {
-            Set<Integer> pairOptions = pair[0].getOptions();
-            for (int index = 0; index < size; index++) {
-                if (line[index].isEmpty() && line[index] != pair[0] && line[index] != pair[1]) {
-                    for (Integer option : pairOptions) {
-                        line[index].addIneligible(option, "Line Naked Pair");
-                    }
-                }
-            }
-        }
-        return eliminated;
+        return subsets.eliminateNakedSubsets(2, Technique.NAKED_PAIR);
     }
 
     /**
@@ -146,70 +117,7 @@ public abstract class Line implements SudokuFrame{
      * @return List<Cell[]> list of hidden pairs
      */
     public List<Cell[]> getHiddenPairs() {
-        int[] numberOfAppearance = getAppearanceCountersForNumberArray();
-        ArrayList<Integer> hiddenNumberCandidate = new ArrayList<>();
-        for (int number = 1; number < numberOfAppearance.length; number++) {
-            if(numberOfAppearance[number] == 2)
-                hiddenNumberCandidate.add(number);
-        }
-        List<Set<Integer>> hiddenNumbersForCell = Arrays.stream(line).map(cell -> hiddenNumbersInCell(hiddenNumberCandidate, getRelevantIndex(cell))).collect(Collectors.toList());
-        List<Cell[]> pairs = new ArrayList<>();
-        for (int index1 = 0; index1 < line.length - 1; index1++) {
-            for (int index2 = index1 + 1; index2 < line.length; index2++) {
-                if(hiddenNumbersForCell.get(index1).size() == 2 && hiddenNumbersForCell.get(index1).equals(hiddenNumbersForCell.get(index2))) {
-                    Cell[] pair = {line[index1], line[index2]};
-                    pairs.add(pair);
-                }
-            }
-        }
-        updateAfterHiddenPair(pairs, hiddenNumbersForCell);
-        return pairs;
-    }
-
-    public int[] getAppearanceCountersForNumberArray() {
-        int[] numberOfAppearance = new int[line.length + 1];
-        for (Cell cell : line) {
-            if(cell.isEmpty()){
-                for (Integer option : cell.getOptions()) {
-                    numberOfAppearance[option]++;
-                }
-            }
-        }
-        return numberOfAppearance;
-    }
-
-    public Set<Integer> getCellsIndexesWithOption(int option){
-        Set<Integer> holdingOption = new HashSet<>();
-        for (int index = 0; index < size; index++) {
-            if(line[index].isEmpty() && line[index].hasOption(option)){
-                holdingOption.add(index);
-            }
-        }
-        return holdingOption;
-    }
-
-    protected Set<Integer> hiddenNumbersInCell(ArrayList<Integer> hiddenNumberCandidate, int cellIndex) {
-        Set<Integer> res = new HashSet<>();
-        if(!line[cellIndex].isEmpty())
-            return res;
-        for (Integer number : hiddenNumberCandidate) {
-            if(line[cellIndex].hasOption(number))
-                res.add(number);
-        }
-        return res;
-    }
-
-    private List<EliminatedRecord> updateAfterHiddenPair(List<Cell[]> pairs, List<Set<Integer>> hiddenNumbersForCell) {
-        for (Cell[] pair : pairs) {
-            for (int number = 1; number <= line.length; number++) {
-                if(!hiddenNumbersForCell.get(getRelevantIndex(pair[0])).contains(number)){
-                    pair[0].addIneligible(number, "Line Hidden Pair");
-                    pair[1].addIneligible(number, "Line Hidden Pair");
-                }
-            }
-        }
-        getNakedPairs();
-        return eliminated;
+        return subsets.eliminateHiddenSubsets(2, Technique.HIDDEN_PAIR);
     }
 
     /**
@@ -221,76 +129,18 @@ public abstract class Line implements SudokuFrame{
      * @return List<Cell[]> list of naked triple
      */
     public List<Cell[]> getNakedTriple() {
-        List<Cell> haveUpTo3options = Arrays.stream(line).filter(cell -> cell.isEmpty() && cell.getOptions().size() > 1 && cell.getOptions().size() < 4).collect(Collectors.toList());
-//        lookForTripleNaked(haveUpTo3options, 0, 1, 2, res);
-        List<Cell[]> res = lookForTripleNaked(haveUpTo3options);
-        updateAfterNakedTriple(res);
-        return res;
-    }
-
-    private List<EliminatedRecord> updateAfterNakedTriple(List<Cell[]> res) {
-        for (Cell[] triple : res) {
-            ArrayList<Integer> tripleOptions = new ArrayList<>(triple[0].getOptions());
-            tripleOptions.addAll(triple[1].getOptions());
-            tripleOptions.addAll(triple[2].getOptions());
-            for (int index = 0; index < size; index++) {
-                if (line[index] != triple[0] && line[index] != triple[1] && line[index] != triple[2] && line[index].isEmpty()) {
-                    for (Integer option : tripleOptions) {
-                        line[index].addIneligible(option, "Line Naked Triple");
-                    }
-                }
-            }
-        }
-        return eliminated;
-    }
-
-    // Recursive solution
-    private void lookForTripleNaked(List<Cell> haveUpTo3options, int i, int j, int k, List<Cell[]> triples) {
-        if(haveUpTo3options.size() < 3 || i == haveUpTo3options.size() - 2){
-            return;
-        }
-        if(j == haveUpTo3options.size() - 1) {
-            lookForTripleNaked(haveUpTo3options, i + 1, i + 2, i + 3, triples);
-        }
-        else if(k == haveUpTo3options.size()) {
-            lookForTripleNaked(haveUpTo3options, i, j + 1, j + 2, triples);
-        }
-        else{
-            HashSet<Integer> options = new HashSet<>();
-            options.addAll(haveUpTo3options.get(i).getOptions());
-            options.addAll(haveUpTo3options.get(j).getOptions());
-            options.addAll(haveUpTo3options.get(k).getOptions());
-            if(options.size() == 3){
-                Cell[] triple = {haveUpTo3options.get(i), haveUpTo3options.get(j), haveUpTo3options.get(k)};
-                triples.add(triple);
-                lookForTripleNaked(haveUpTo3options, i + 1, i + 2, i + 3, triples);
-            }
-            else{
-                lookForTripleNaked(haveUpTo3options, i, j, k + 1, triples);
-            }
-        }
+        return subsets.eliminateNakedSubsets(3, Technique.NAKED_TRIPLE);
     }
 
-    // Iterative solution
-    private List<Cell[]> lookForTripleNaked(List<Cell> haveUpTo3options){
-        List<Cell[]> triples = new ArrayList<>();
-        for (int i = 0; i < haveUpTo3options.size() - 2; i++) {
-            outerLoop:
-            for (int j = i + 1; j < haveUpTo3options.size() - 1; j++) {
-                for (int k = j + 1; k < haveUpTo3options.size(); k++) {
-                    HashSet<Integer> options = new HashSet<>();
-                    options.addAll(haveUpTo3options.get(i).getOptions());
-                    options.addAll(haveUpTo3options.get(j).getOptions());
-                    options.addAll(haveUpTo3options.get(k).getOptions());
-                    if(options.size() == 3){
-                        Cell[] triple = {haveUpTo3options.get(i), haveUpTo3options.get(j), haveUpTo3options.get(k)};
-                        triples.add(triple);
-                        break outerLoop;
-                    }
-                }
-            }
-        }
-        return triples;
+    /**
+     * Three candidates that appear only in the same three cells of a line, or a box, are called
+     * a Hidden Triple.
+     * All other candidates in the three cells can be eliminated.
+     * The method will update the Line!
+     * @return List<Cell[]> list of hidden triple
+     */
+    public List<Cell[]> getHiddenTriple() {
+        return subsets.eliminateHiddenSubsets(3, Technique.HIDDEN_TRIPLE);
     }
 
     /**
@@ -299,88 +149,52 @@ public abstract class Line implements SudokuFrame{
      * All other appearances of the same candidates can be eliminated if they are in the same line
      * or box.
      * The method will update the Line!
-     * @return List<Cell[]> list of naked triple
+     * @return List<Cell[]> list of naked quad
      */
     public List<Cell[]> getNakedQuad() {
-//        List<Cell[]> res = new ArrayList<>();
-        List<Cell> haveUpTo4options = Arrays.stream(line).filter(cell -> cell.isEmpty() && cell.getOptions().size() > 1 && cell.getOptions().size() < 5).collect(Collectors.toList());
-//        lookForQuadNaked(haveUpTo4options, 0, 1, 2, 3, res);
-        List<Cell[]> res = lookForQuadNaked(haveUpTo4options);
-        updateAfterNakedQuad(res);
-        return res;
+        return subsets.eliminateNakedSubsets(4, Technique.NAKED_QUAD);
     }
 
-    private List<EliminatedRecord> updateAfterNakedQuad(List<Cell[]> res) {
-        for (Cell[] quads : res) {
-            ArrayList<Integer> quadOptions = new ArrayList<>(quads[0].getOptions());
-            quadOptions.addAll(quads[1].getOptions());
-            quadOptions.addAll(quads[2].getOptions());
-            quadOptions.addAll(quads[3].getOptions());
-            for (int index = 0; index < size; index++) {
-                if (line[index] != quads[0] && line[index] != quads[1] && line[index] != quads[2] && line[index] != quads[3] && line[index].isEmpty()) {
-                    for (Integer option : quadOptions) {
-                        line[index].addIneligible(option, "Line Naked Quad");
-                    }
-                }
-            }
-        }
-        return eliminated;
+    /**
+     * Four candidates that appear only in the same four cells of a line, or a box, are called
+     * a Hidden Quad.
+     * All other candidates in the four cells can be eliminated.
+     * The method will update the Line!
+     * @return List<Cell[]> list of hidden quad
+     */
+    public List<Cell[]> getHiddenQuad() {
+        return subsets.eliminateHiddenSubsets(4, Technique.HIDDEN_QUAD);
     }
 
-    // Recursive solution
-    private void lookForQuadNaked(List<Cell> haveUpTo4options, int i, int j, int k, int l, List<Cell[]> quads) {
-        if(haveUpTo4options.size() < 4 || i == haveUpTo4options.size() - 3){
-            return;
-        }
-        if(j == haveUpTo4options.size() - 2) {
-            lookForQuadNaked(haveUpTo4options, i + 1, i + 2, i + 3, i + 4,quads);
-        }
-        else if(k == haveUpTo4options.size() - 1) {
-            lookForQuadNaked(haveUpTo4options, i, j + 1, j + 2, j + 3,quads);
-        }
-        else if(l == haveUpTo4options.size()) {
-            lookForQuadNaked(haveUpTo4options, i, j, k + 1, k + 2,quads);
-        }
-        else{
-            HashSet<Integer> options = new HashSet<>();
-            options.addAll(haveUpTo4options.get(i).getOptions());
-            options.addAll(haveUpTo4options.get(j).getOptions());
-            options.addAll(haveUpTo4options.get(k).getOptions());
-            options.addAll(haveUpTo4options.get(l).getOptions());
-            if(options.size() == 4){
-                Cell[] quad = {haveUpTo4options.get(i), haveUpTo4options.get(j), haveUpTo4options.get(k), haveUpTo4options.get(l)};
-                quads.add(quad);
-                lookForQuadNaked(haveUpTo4options, i + 1, i + 2, i + 3, i + 4,quads);
-            }
-            else{
-                lookForQuadNaked(haveUpTo4options, i, j, k, l + 1, quads);
-            }
+    /**
+     * Naked and Hidden subsets of any size, see {@link SubsetFinder}.
+     * Finding doesn't change the Line, the caller eliminates with the finder.
+     */
+    public SubsetFinder getSubsetFinder() {
+        return subsets;
+    }
+
+    public int[] getAppearanceCountersForNumberArray() {
+        int[] numberOfAppearance = new int[line.length + 1];
+        for (int number = 1; number <= size; number++) {
+            numberOfAppearance[number] = positions.count(number);
         }
+        return numberOfAppearance;
     }
 
-    // Iterative solution
-    private List<Cell[]> lookForQuadNaked(List<Cell> haveUpTo4options){
-        List<Cell[]> quads = new ArrayList<>();
-        for (int i = 0; i < haveUpTo4options.size() - 3; i++) {
-            outerLoop:
-            for (int j = i + 1; j < haveUpTo4options.size() - 2; j++) {
-                for (int k = j + 1; k < haveUpTo4options.size() - 1; k++) {
-                    for (int l = k + 1; l < haveUpTo4options.size(); l++) {
-                        HashSet<Integer> options = new HashSet<>();
-                        options.addAll(haveUpTo4options.get(i).getOptions());
-                        options.addAll(haveUpTo4options.get(j).getOptions());
-                        options.addAll(haveUpTo4options.get(k).getOptions());
-                        options.addAll(haveUpTo4options.get(l).getOptions());
-                        if(options.size() == 4){
-                            Cell[] quad = {haveUpTo4options.get(i), haveUpTo4options.get(j), haveUpTo4options.get(k), haveUpTo4options.get(l)};
-                            quads.add(quad);
-                            break outerLoop;
-                        }
-                    }
-                }
-            }
+    /**
+     * @return bitmask of the indexes of the empty cells in the line that hold the option
+     */
+    public long getPositionsMask(int option){
+        return positions.get(option);
+    }
+
+    public Set<Integer> getCellsIndexesWithOption(int option){
+        Set<Integer> holdingOption = new HashSet<>();
+        for (long rest = positions.get(option); rest != 0; rest &= rest - 1) {
+            holdingOption.add(Long.numberOfTrailingZeros(rest));
         }
-        return quads;
+        return holdingOption;
     }
 
     /**
@@ -390,50 +204,24 @@ public abstract class Line implements SudokuFrame{
      * @return list of pointing pair records
      */
     public List<ClaimingPairRecord> lookForVerticalClaimingPair(){
-        return lookForClaimingPair(buildSetOfOptionsForClaimingPair(), "vertical");
+        return lookForClaimingPair("vertical");
     }
 
     public List<ClaimingPairRecord> lookForHorizontalClaimingPair(){
-        return lookForClaimingPair(buildSetOfOptionsForClaimingPair(), "horizontal");
+        return lookForClaimingPair("horizontal");
     }
 
-    private Set<Integer>[] buildSetOfOptionsForClaimingPair(){
-        int sqrtSize = (int) Math.sqrt(size);
-        Set<Integer>[] optionsForBox = new Set[sqrtSize];
-        for (int i = 0; i < sqrtSize; i++) {
-            optionsForBox[i] = new HashSet<>();
-        }
-        for (int lineIndex = 0; lineIndex < size; lineIndex++) {
-            if(line[lineIndex].isEmpty()){
-                optionsForBox[lineIndex / sqrtSize].addAll(line[lineIndex].getOptions());
-            }
-        }
-        return optionsForBox;
-    }
-
-    private List<ClaimingPairRecord> lookForClaimingPair(Set<Integer>[] setPerBox, String type) {
-        int sqrtSize = setPerBox.length;
+    private List<ClaimingPairRecord> lookForClaimingPair(String type) {
         List<ClaimingPairRecord> claimingPairs = new ArrayList<>();
-        for (int setIndex = 0; setIndex < setPerBox.length; setIndex++) {
-            Set<Integer> tempSet = new HashSet<>(setPerBox[setIndex]);
-            for (int otherSetIndex = 0; otherSetIndex < setPerBox.length; otherSetIndex++) {
-                if(otherSetIndex != setIndex){
-                    tempSet.removeAll(setPerBox[otherSetIndex]);
-                }
-            }
-            if(!tempSet.isEmpty()){
-                for (Integer integer : tempSet) {
-                    int counter = 0;
-                    for (int i = setIndex * sqrtSize; i < setIndex * sqrtSize + sqrtSize; i++) {
-                        if(line[i].hasOption(integer)){
-                            counter++;
-                        }
-                    }
-                    if(counter > 1){
-                        switch (type){
-                            case "vertical" -> claimingPairs.add(new ClaimingPairRecord(lineIndex / sqrtSize, setIndex, lineIndex % sqrtSize, integer));
-                            case "horizontal" -> claimingPairs.add(new ClaimingPairRecord(setIndex, lineIndex / sqrtSize, lineIndex % sqrtSize, integer));
-                        }
+        long boxSegment = (1L << sqrtSize) - 1;
+        for (int setIndex = 0; setIndex < sqrtSize; setIndex++) {
+            long segment = boxSegment << (setIndex * sqrtSize);
+            for (int number = 1; number <= size; number++) {
+                long numberPositions = positions.get(number);
+                if((numberPositions & ~segment) == 0 && Long.bitCount(numberPositions) > 1){
+                    switch (type){
+                        case "vertical" -> claimingPairs.add(new ClaimingPairRecord(lineIndex / sqrtSize, setIndex, lineIndex % sqrtSize, number));
+                        case "horizontal" -> claimingPairs.add(new ClaimingPairRecord(setIndex, lineIndex / sqrtSize, lineIndex % sqrtSize, number));
                     }
                 }
             }
@@ -0,0 +1,53 @@
+package v2;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Cumulative {@link StrategyMetrics} of every measured solve in the JVM, per board size.
+ * Measuring is off by default: boards created while it's off don't measure, and cost one null
+ * check per strategy call. Thread safe, boards add their metrics once per solve.
+ */
+public final class MetricsRegistry {
+
+    private static volatile boolean enabled;
+    private static final Map<Integer, StrategyMetrics> METRICS = new TreeMap<>();
+
+    private MetricsRegistry() {
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Turns measuring on or off for the boards created from now on.
+     */
+    public static void setEnabled(boolean enabled) {
+        MetricsRegistry.enabled = enabled;
+    }
+
+    public static synchronized void add(int size, StrategyMetrics metrics) {
+        METRICS.computeIfAbsent(size, key -> new StrategyMetrics()).add(metrics);
+    }
+
+    /**
+     * @return a copy of the cumulative metrics of boards of the given size
+     */
+    public static synchronized StrategyMetrics snapshot(int size) {
+        StrategyMetrics metrics = METRICS.get(size);
+        return metrics == null ? new StrategyMetrics() : metrics.copy();
+    }
+
+    public static synchronized void reset() {
+        METRICS.clear();
+    }
+
+    public static synchronized String report() {
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<Integer, StrategyMetrics> entry : METRICS.entrySet()) {
+            sb.append("Size ").append(entry.getKey()).append(":\n").append(entry.getValue());
+        }
+        return sb.toString();
+    }
+}
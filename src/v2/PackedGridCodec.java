@@ -0,0 +1,205 @@
+package v2;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * Compact binary format for boards, puzzles and solutions alike.
+ * Layout of one board:
+ * byte 0 - flags, bit 0 set when a givens mask follows the header
+ * byte 1 - size
+ * bytes 2, 3 - box shape (rows, columns)
+ * givens mask (optional) - one bit per cell, set for a cell that holds a value, ceil(cells / 8) bytes
+ * values - ceil(log2(size + 1)) bits per cell (4 for 9x9, 5 for 16x16 and 25x25, 6 for 36x36),
+ * for every cell, or only for the cells of the mask when there is one, padded to a whole byte.
+ * Bits are written lowest first. Boards are read and written at the buffer's position, which
+ * moves past them, so any number of boards can follow each other in one buffer or file.
+ */
+public final class PackedGridCodec {
+
+    public static final int HEADER_LENGTH = 4;
+    private static final int GIVENS_MASK_FLAG = 1;
+
+    private PackedGridCodec() {
+    }
+
+    public static int bitsPerCell(int size) {
+        return 32 - Integer.numberOfLeadingZeros(size);
+    }
+
+    /**
+     * @param givensMask whether the board is written with a givens mask, worth it for sparse puzzles
+     * @return number of bytes the board takes
+     */
+    public static int encodedLength(int[] cells, int size, boolean givensMask) {
+        int cellCount = size * size;
+        int packedCells = cellCount;
+        int length = HEADER_LENGTH;
+        if(givensMask){
+            packedCells = 0;
+            for (int cell = 0; cell < cellCount; cell++) {
+                if(cells[cell] != 0)
+                    packedCells++;
+            }
+            length += (cellCount + 7) / 8;
+        }
+        return length + (packedCells * bitsPerCell(size) + 7) / 8;
+    }
+
+    /**
+     * @return true if the mask makes the board shorter, so it's worth writing with one
+     */
+    public static boolean isMaskShorter(int[] cells, int size) {
+        return encodedLength(cells, size, true) < encodedLength(cells, size, false);
+    }
+
+    public static void write(ByteBuffer target, int[][] intBoard, boolean givensMask) {
+        write(target, BoardUtils.toCells(intBoard), intBoard.length, givensMask);
+    }
+
+    /**
+     * Writes the board at the position of target.
+     * @param cells the board row by row, 0 for an empty cell
+     */
+    public static void write(ByteBuffer target, int[] cells, int size, boolean givensMask) {
+        write(target, cells, 0, size, givensMask);
+    }
+
+    /**
+     * Like {@link #write(ByteBuffer, int[], int, boolean)} for a board stored from offset inside a bigger array.
+     * The values are checked before anything is written, an illegal value leaves target as it was.
+     */
+    public static void write(ByteBuffer target, int[] cells, int offset, int size, boolean givensMask) {
+        Topology topology = Topology.of(size);
+        int cellCount = topology.getCellCount();
+        for (int cell = 0; cell < cellCount; cell++) {
+            int value = cells[offset + cell];
+            if(value < 0 || value > size){
+                throw new IllegalArgumentException("Illegal value " + value + " for a board of size " + size);
+            }
+        }
+        target.put((byte) (givensMask ? GIVENS_MASK_FLAG : 0));
+        target.put((byte) size);
+        target.put((byte) topology.getBoxSize());
+        target.put((byte) topology.getBoxSize());
+        if(givensMask){
+            for (int start = 0; start < cellCount; start += 8) {
+                int bits = 0;
+                for (int i = 0; i < 8 && start + i < cellCount; i++) {
+                    if(cells[offset + start + i] != 0)
+                        bits |= 1 << i;
+                }
+                target.put((byte) bits);
+            }
+        }
+        int bitsPerCell = bitsPerCell(size);
+        long pending = 0;
+        int pendingBits = 0;
+        for (int cell = 0; cell < cellCount; cell++) {
+            int value = cells[offset + cell];
+            if(givensMask && value == 0)
+                continue;
+            pending |= (long) value << pendingBits;
+            pendingBits += bitsPerCell;
+            while (pendingBits >= 8) {
+                target.put((byte) pending);
+                pending >>>= 8;
+                pendingBits -= 8;
+            }
+        }
+        if(pendingBits > 0){
+            target.put((byte) pending);
+        }
+    }
+
+    /**
+     * @return the size of the board at the position of source, without moving the position
+     */
+    public static int peekSize(ByteBuffer source) {
+        return source.get(source.position() + 1);
+    }
+
+    /**
+     * Reads the board at the position of source into target.
+     * @param target array of at least size * size cells, filled row by row with 0 for an empty cell
+     * @return the size of the board
+     */
+    public static int read(ByteBuffer source, int[] target) {
+        return read(source, target, 0);
+    }
+
+    /**
+     * Like {@link #read(ByteBuffer, int[])} into a bigger array, the board is stored from offset.
+     */
+    public static int read(ByteBuffer source, int[] target, int offset) {
+        if(source.remaining() < HEADER_LENGTH){
+            throw new BufferUnderflowException();
+        }
+        int flags = source.get();
+        int size = source.get();
+        int boxRows = source.get();
+        int boxColumns = source.get();
+        if(boxRows * boxColumns != size || boxRows != boxColumns){
+            throw new IllegalArgumentException("Unsupported box shape " + boxRows + "x" + boxColumns + " for a board of size " + size);
+        }
+        int cellCount = Topology.of(size).getCellCount();
+        boolean givensMask = (flags & GIVENS_MASK_FLAG) != 0;
+        if(givensMask){
+            for (int start = 0; start < cellCount; start += 8) {
+                int bits = source.get() & 0xFF;
+                for (int i = 0; i < 8 && start + i < cellCount; i++) {
+                    target[offset + start + i] = (bits >>> i) & 1;
+                }
+            }
+        }
+        int bitsPerCell = bitsPerCell(size);
+        long mask = (1L << bitsPerCell) - 1;
+        long pending = 0;
+        int pendingBits = 0;
+        for (int cell = 0; cell < cellCount; cell++) {
+            if(givensMask && target[offset + cell] == 0)
+                continue;
+            while (pendingBits < bitsPerCell) {
+                pending |= (long) (source.get() & 0xFF) << pendingBits;
+                pendingBits += 8;
+            }
+            int value = (int) (pending & mask);
+            if(value > size){
+                throw new IllegalArgumentException("Illegal value " + value + " for a board of size " + size);
+            }
+            if(givensMask && value == 0){
+                throw new IllegalArgumentException("Empty cell " + cell + " is marked as a given");
+            }
+            target[offset + cell] = value;
+            pending >>>= bitsPerCell;
+            pendingBits -= bitsPerCell;
+        }
+        return size;
+    }
+
+    /**
+     * Reads the board at the position of source.
+     */
+    public static int[][] read(ByteBuffer source) {
+        int size = peekSize(source);
+        int[] cells = new int[size * size];
+        read(source, cells);
+        return BoardUtils.toIntBoard(cells, size);
+    }
+
+    public static void main(String[] args) {
+        int[][][] boards = {BoardUtils.hardBoard, BoardUtils.bigBoard, BoardUtils.giantBoard1};
+        for (int[][] intBoard : boards) {
+            int size = intBoard.length;
+            int[] puzzle = BoardUtils.toCells(intBoard);
+            int[] solution = puzzle.clone();
+            new DancingLinks(size).solve(solution);
+            int textLength = 0;
+            for (int value : solution) {
+                textLength += String.valueOf(value).length() + 1;
+            }
+            System.out.println(size + "x" + size + ": text " + textLength + " bytes, solution " + encodedLength(solution, size, false)
+                    + " bytes, puzzle " + encodedLength(puzzle, size, isMaskShorter(puzzle, size)) + " bytes");
+        }
+    }
+}
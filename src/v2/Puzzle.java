@@ -0,0 +1,97 @@
+package v2;
+
+import java.util.Arrays;
+
+/**
+ * Immutable puzzle: the givens of a board and its {@link Topology}.
+ * It holds no solving state, so one puzzle can be shared by any number of threads and solved by
+ * several {@link SolverContext}s at once.
+ */
+public final class Puzzle {
+
+    private final Topology topology;
+    private final int[] givens;
+    private final int givensCount;
+
+    private Puzzle(Topology topology, int[] givens) {
+        this.topology = topology;
+        this.givens = givens;
+        int count = 0;
+        for (int value : givens) {
+            if(value < 0 || value > topology.size()){
+                throw new IllegalArgumentException("Illegal value " + value + " for a board of size " + topology.size());
+            }
+            if(value != 0)
+                count++;
+        }
+        givensCount = count;
+    }
+
+    /**
+     * @param intBoard the board, 0 for an empty cell, it's copied
+     */
+    public static Puzzle of(int[][] intBoard) {
+        return new Puzzle(Topology.of(intBoard.length), BoardUtils.toCells(intBoard));
+    }
+
+    /**
+     * @param cells the board row by row, 0 for an empty cell, it's copied
+     */
+    public static Puzzle of(int[] cells, int size) {
+        Topology topology = Topology.of(size);
+        if(cells.length != topology.getCellCount()){
+            throw new IllegalArgumentException("Expected " + topology.getCellCount() + " cells, got " + cells.length);
+        }
+        return new Puzzle(topology, cells.clone());
+    }
+
+    public Topology getTopology() {
+        return topology;
+    }
+
+    public int size() {
+        return topology.size();
+    }
+
+    public int getGiven(int row, int column) {
+        return givens[topology.cellIndex(row, column)];
+    }
+
+    public int getGivensCount() {
+        return givensCount;
+    }
+
+    /**
+     * Copies the givens, row by row, into target.
+     */
+    public void copyGivens(int[] target) {
+        System.arraycopy(givens, 0, target, 0, givens.length);
+    }
+
+    public int[] toCells() {
+        return givens.clone();
+    }
+
+    public int[][] toIntBoard() {
+        return BoardUtils.toIntBoard(givens, topology.size());
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if(this == o)
+            return true;
+        if(!(o instanceof Puzzle puzzle))
+            return false;
+        return topology == puzzle.topology && Arrays.equals(givens, puzzle.givens);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(givens);
+    }
+
+    @Override
+    public String toString() {
+        return new FlatBoard(toIntBoard()).toString();
+    }
+}
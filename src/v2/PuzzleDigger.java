@@ -0,0 +1,165 @@
+package v2;
+
+import java.util.SplittableRandom;
+
+/**
+ * Turns a solved grid into a puzzle by removing clues one at a time, keeping a removal only if the
+ * puzzle is still uniquely solvable.
+ * Every cell is tried once, and since removing clues never makes a puzzle more constrained, a clue
+ * that had to stay stays needed, so the result is minimal for its removal order.
+ * Removal orders:
+ * RANDOM - cells in random order, uniqueness checked by a {@link SolutionCounter} (limit 2).
+ * SYMMETRIC - like RANDOM, but a cell is removed together with its 180 degrees rotation.
+ * STRATEGY_CONSTRAINED - cells in random order, a removal is kept only if the strategies of
+ * {@link Board} still solve the puzzle without guessing (which also proves it's unique).
+ * The removals are applied to one live state, a rejected removal is undone instead of rebuilding it.
+ * On big boards some uniqueness checks get exponentially expensive, so every check runs within
+ * search limits, and a clue whose check runs out of budget is kept: the puzzle stays unique, but may
+ * keep a few clues that could have been removed. {@link #getBudgetKeptClues()} tells how many.
+ */
+public class PuzzleDigger {
+
+    public enum RemovalOrder {RANDOM, SYMMETRIC, STRATEGY_CONSTRAINED}
+
+    /**
+     * Called after every cell tried.
+     */
+    @FunctionalInterface
+    public interface ProgressListener {
+        void onProgress(int cellsTried, int cellsCount, int cluesLeft);
+    }
+
+    private static final ProgressListener NO_PROGRESS = (cellsTried, cellsCount, cluesLeft) -> {};
+    private static final SearchLimits DEFAULT_CHECK_LIMITS = new SearchLimits(10_000, Long.MAX_VALUE);
+
+    private final SplittableRandom random;
+    private ProgressListener progressListener = NO_PROGRESS;
+    private SearchLimits checkLimits = DEFAULT_CHECK_LIMITS;
+    private int budgetKeptClues;
+
+    public PuzzleDigger() {
+        this(new SplittableRandom());
+    }
+
+    public PuzzleDigger(long seed) {
+        this(new SplittableRandom(seed));
+    }
+
+    public PuzzleDigger(SplittableRandom random) {
+        this.random = random;
+    }
+
+    public PuzzleDigger setProgressListener(ProgressListener progressListener) {
+        this.progressListener = progressListener == null ? NO_PROGRESS : progressListener;
+        return this;
+    }
+
+    /**
+     * Sets the budget of every uniqueness check made by the RANDOM and SYMMETRIC orders.
+     */
+    public PuzzleDigger setCheckLimits(SearchLimits checkLimits) {
+        this.checkLimits = checkLimits;
+        return this;
+    }
+
+    /**
+     * @return number of clues the last dig kept because their uniqueness check ran out of budget,
+     * the last puzzle is minimal only when it's 0
+     */
+    public int getBudgetKeptClues() {
+        return budgetKeptClues;
+    }
+
+    /**
+     * @param solution a solved grid, it isn't changed
+     * @return a puzzle whose only solution is the given grid, minimal for its removal order unless
+     * a check ran out of budget, see {@link #getBudgetKeptClues()}
+     */
+    public int[][] dig(int[][] solution, RemovalOrder order) {
+        int size = solution.length;
+        return BoardUtils.toIntBoard(dig(BoardUtils.toCells(solution), size, order), size);
+    }
+
+    /**
+     * @param solution a solved grid row by row, it isn't changed
+     * @return a puzzle whose only solution is the given grid, minimal for its removal order unless
+     * a check ran out of budget, see {@link #getBudgetKeptClues()}
+     */
+    public int[] dig(int[] solution, int size, RemovalOrder order) {
+        budgetKeptClues = 0;
+        int[] cellsOrder = shuffledCells(size * size);
+        return switch (order) {
+            case RANDOM -> digWithCounter(solution, size, cellsOrder, false);
+            case SYMMETRIC -> digWithCounter(solution, size, cellsOrder, true);
+            case STRATEGY_CONSTRAINED -> digWithStrategies(solution, size, cellsOrder);
+        };
+    }
+
+    private int[] shuffledCells(int cellsCount) {
+        int[] cells = new int[cellsCount];
+        for (int i = 0; i < cellsCount; i++) {
+            cells[i] = i;
+        }
+        for (int i = cellsCount - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int temp = cells[i];
+            cells[i] = cells[j];
+            cells[j] = temp;
+        }
+        return cells;
+    }
+
+    private int[] digWithCounter(int[] solution, int size, int[] cellsOrder, boolean symmetric) {
+        int cellsCount = size * size;
+        int[] puzzle = solution.clone();
+        int clues = cellsCount;
+        for (int i = 0; i < cellsCount; i++) {
+            int cell = cellsOrder[i];
+            int mirror = symmetric ? cellsCount - 1 - cell : cell;
+            //a symmetric pair is tried once, with the first of the two cells
+            if(mirror >= cell){
+                int value = puzzle[cell];
+                int mirrorValue = puzzle[mirror];
+                puzzle[cell] = 0;
+                puzzle[mirror] = 0;
+                int solutions = SolutionCounter.countSolutions(puzzle, size, 2, checkLimits);
+                if(solutions == 1){
+                    clues -= mirror == cell ? 1 : 2;
+                }
+                else {
+                    puzzle[cell] = value;
+                    puzzle[mirror] = mirrorValue;
+                    if(solutions == -1){
+                        budgetKeptClues += mirror == cell ? 1 : 2;
+                    }
+                }
+            }
+            progressListener.onProgress(i + 1, cellsCount, clues);
+        }
+        return puzzle;
+    }
+
+    private int[] digWithStrategies(int[] solution, int size, int[] cellsOrder) {
+        int cellsCount = size * size;
+        Board board = new Board(BoardUtils.toIntBoard(solution, size));
+        int clues = cellsCount;
+        for (int i = 0; i < cellsCount; i++) {
+            int row = cellsOrder[i] / size;
+            int column = cellsOrder[i] % size;
+            board.checkpoint();
+            board.removeClue(row, column);
+            board.checkpoint();
+            boolean solved = board.solve();
+            board.rollback();
+            if(solved){
+                board.commit();
+                clues--;
+            }
+            else {
+                board.rollback();
+            }
+            progressListener.onProgress(i + 1, cellsCount, clues);
+        }
+        return BoardUtils.toCells(board.toIntBoard());
+    }
+}
@@ -8,6 +8,10 @@ public class Row extends Line {
         super(lineIndex, size, line, eliminatedRecords);
     }
 
+    public Row(int lineIndex, int size, Cell[] line) {
+        super(lineIndex, size, line);
+    }
+
     @Override
     protected int getRelevantIndex(Cell cell) {
         return cell.getColumn();
@@ -0,0 +1,15 @@
+package v2;
+
+import java.time.Duration;
+
+/**
+ * Budget for a backtracking search: the number of search nodes (guesses) and the time it may take.
+ */
+public record SearchLimits(long maxNodes, long maxNanos) {
+
+    public static final SearchLimits UNLIMITED = new SearchLimits(Long.MAX_VALUE, Long.MAX_VALUE);
+
+    public static SearchLimits of(long maxNodes, Duration maxTime) {
+        return new SearchLimits(maxNodes, maxTime.toNanos());
+    }
+}
@@ -0,0 +1,94 @@
+package v2;
+
+import java.util.Arrays;
+
+/**
+ * FIFO of singles waiting to be placed.
+ * A cell adds itself when it's left with one option (Naked Single), and a unit adds the cell
+ * when a number is left with one position in it (Hidden Single), at the moment it happens.
+ * An entry can go stale (the cell was filled or lost the option meanwhile), so the consumer
+ * checks it before placing.
+ */
+public class SinglesQueue {
+
+    private Cell[] cells;
+    private int[] values;
+    private boolean[] hidden;
+    private int head;
+    private int length;
+
+    public SinglesQueue() {
+        cells = new Cell[32];
+        values = new int[32];
+        hidden = new boolean[32];
+    }
+
+    /**
+     * Adds a Naked Single.
+     */
+    public void add(Cell cell, int value) {
+        add(cell, value, false);
+    }
+
+    public void addHidden(Cell cell, int value) {
+        add(cell, value, true);
+    }
+
+    private void add(Cell cell, int value, boolean isHidden) {
+        if(length == cells.length){
+            grow();
+        }
+        int tail = (head + length) % cells.length;
+        cells[tail] = cell;
+        values[tail] = value;
+        hidden[tail] = isHidden;
+        length++;
+    }
+
+    private void grow() {
+        Cell[] newCells = new Cell[cells.length * 2];
+        int[] newValues = new int[cells.length * 2];
+        boolean[] newHidden = new boolean[cells.length * 2];
+        for (int i = 0; i < length; i++) {
+            newCells[i] = cells[(head + i) % cells.length];
+            newValues[i] = values[(head + i) % cells.length];
+            newHidden[i] = hidden[(head + i) % cells.length];
+        }
+        cells = newCells;
+        values = newValues;
+        hidden = newHidden;
+        head = 0;
+    }
+
+    public boolean isEmpty() {
+        return length == 0;
+    }
+
+    public int size() {
+        return length;
+    }
+
+    public Cell headCell() {
+        return cells[head];
+    }
+
+    public int headValue() {
+        return values[head];
+    }
+
+    public Technique headTechnique() {
+        return hidden[head] ? Technique.HIDDEN_SINGLE : Technique.NAKED_SINGLE;
+    }
+
+    public void pop() {
+        cells[head] = null;
+        head = (head + 1) % cells.length;
+        length--;
+    }
+
+    public void clear() {
+        Arrays.fill(cells, null);
+        head = 0;
+        length = 0;
+    }
+}
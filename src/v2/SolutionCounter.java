@@ -0,0 +1,66 @@
+package v2;
+
+/**
+ * Counts the solutions of a board up to a limit, the check puzzle generators run for every clue
+ * they try to remove (limit 2: no solution, a unique solution, or more than one).
+ * Unlike {@link Board#solve()}, which only tells whether the strategies alone finish the board,
+ * the count is exact: it runs a {@link DancingLinks} search that stops as soon as the limit is
+ * reached. The search covers and uncovers its matrix between branches instead of copying state,
+ * and the matrix of every board size is built once per thread and reused by all the calls.
+ */
+public final class SolutionCounter {
+
+    private static final ThreadLocal<DancingLinks[]> ENGINES = ThreadLocal.withInitial(() -> new DancingLinks[Candidates.MAX_DIGITS + 1]);
+
+    private SolutionCounter() {
+    }
+
+    /**
+     * @return the engine of the calling thread for boards of the given size
+     */
+    public static DancingLinks engine(int size) {
+        DancingLinks[] engines = ENGINES.get();
+        if(size < 1 || size >= engines.length){
+            throw new IllegalArgumentException("Illegal board size " + size);
+        }
+        if(engines[size] == null){
+            engines[size] = new DancingLinks(size);
+        }
+        return engines[size];
+    }
+
+    /**
+     * @param grid the board, 0 for an empty cell
+     * @param limit the search stops once this number of solutions was found
+     * @return number of solutions, at most limit
+     */
+    public static int countSolutions(int[][] grid, int limit) {
+        return engine(grid.length).countSolutions(grid, limit);
+    }
+
+    /**
+     * @param cells the board row by row, 0 for an empty cell
+     * @param size the size of the board
+     * @param limit the search stops once this number of solutions was found
+     * @return number of solutions, at most limit
+     */
+    public static int countSolutions(int[] cells, int size, int limit) {
+        return engine(size).countSolutions(cells, limit);
+    }
+
+    /**
+     * Like {@link #countSolutions(int[], int, int)}, but gives up when the search exceeds its limits.
+     * @return number of solutions, at most limit, or -1 if the limits were exceeded first
+     */
+    public static int countSolutions(int[] cells, int size, int limit, SearchLimits limits) {
+        return engine(size).countSolutions(cells, limit, limits);
+    }
+
+    public static boolean isUnique(int[][] grid) {
+        return countSolutions(grid, 2) == 1;
+    }
+
+    public static boolean isUnique(int[] cells, int size) {
+        return countSolutions(cells, size, 2) == 1;
+    }
+}
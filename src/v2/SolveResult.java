@@ -0,0 +1,12 @@
+package v2;
+
+public enum SolveResult {
+    SOLVED,
+    UNSOLVABLE,
+    BUDGET_EXCEEDED,
+    /**
+     * The strategies stopped making progress without a contradiction, the puzzle may still be
+     * solvable with a search.
+     */
+    STALLED
+}
@@ -0,0 +1,155 @@
+package v2;
+
+import java.util.Arrays;
+
+/**
+ * All the mutable state needed to solve puzzles of one size: a {@link DancingLinks} engine for exact
+ * solving and a {@link FlatBoard} for solving with the strategies only.
+ * Everything is allocated once and reset by every solve, so a context is meant to be kept and reused,
+ * one per thread: it isn't thread safe, but the {@link Puzzle}s it solves can be shared.
+ */
+public class SolverContext {
+
+    private static final ThreadLocal<SolverContext[]> CONTEXTS = ThreadLocal.withInitial(() -> new SolverContext[Candidates.MAX_DIGITS + 1]);
+
+    private final Topology topology;
+    private final FlatBoard flatBoard;
+    private final DancingLinks dancingLinks;
+    private final int[] values;
+    private final boolean[] seen;
+    private SolveResult lastResult;
+
+    public SolverContext(int size) {
+        topology = Topology.of(size);
+        flatBoard = new FlatBoard(size);
+        dancingLinks = new DancingLinks(size);
+        values = new int[topology.getCellCount()];
+        seen = new boolean[size + 1];
+    }
+
+    /**
+     * @return the context of the calling thread for puzzles of the given size, created on first use
+     */
+    public static SolverContext forCurrentThread(int size) {
+        SolverContext[] contexts = CONTEXTS.get();
+        if(size < 1 || size >= contexts.length){
+            throw new IllegalArgumentException("Illegal board size " + size);
+        }
+        if(contexts[size] == null){
+            contexts[size] = new SolverContext(size);
+        }
+        return contexts[size];
+    }
+
+    public int size() {
+        return topology.size();
+    }
+
+    /**
+     * Solves the puzzle with a search, the fastest exact way.
+     * The puzzle isn't changed, the solution stays in the context until the next solve.
+     */
+    public SolveResult solve(Puzzle puzzle) {
+        checkSize(puzzle);
+        reset();
+        puzzle.copyGivens(values);
+        lastResult = dancingLinks.solve(values) ? SolveResult.SOLVED : SolveResult.UNSOLVABLE;
+        return lastResult;
+    }
+
+    /**
+     * Solves a board stored from offset inside a bigger array (a batch or a parsed corpus) in place,
+     * without creating a {@link Puzzle}. The context keeps no copy of the solution.
+     */
+    public SolveResult solve(int[] cells, int offset) {
+        reset();
+        return dancingLinks.solve(cells, offset) ? SolveResult.SOLVED : SolveResult.UNSOLVABLE;
+    }
+
+    /**
+     * Solves the puzzle with the strategies of {@link FlatBoard} only, without guessing.
+     * The last result tells a stall ({@link SolveResult#STALLED}) from a contradiction, an empty
+     * cell without options or a number repeated in a unit ({@link SolveResult#UNSOLVABLE}).
+     * @return true if the strategies solved it, otherwise the values hold what they could fill
+     */
+    public boolean solveWithStrategies(Puzzle puzzle) {
+        checkSize(puzzle);
+        reset();
+        puzzle.copyGivens(values);
+        flatBoard.reset(values);
+        boolean solved = flatBoard.solve();
+        flatBoard.copyValues(values);
+        if(solved && isValidSolution()){
+            lastResult = SolveResult.SOLVED;
+            return true;
+        }
+        lastResult = solved || flatBoard.hasContradiction() || hasRepeatedValue() ? SolveResult.UNSOLVABLE : SolveResult.STALLED;
+        return false;
+    }
+
+    private void checkSize(Puzzle puzzle) {
+        if(puzzle.getTopology() != topology){
+            throw new IllegalArgumentException("Context of size " + topology.size() + " can't solve a puzzle of size " + puzzle.size());
+        }
+    }
+
+    /**
+     * Forgets the last solve.
+     */
+    public void reset() {
+        lastResult = null;
+    }
+
+    private boolean hasRepeatedValue() {
+        int size = topology.size();
+        for (int unit = 0; unit < topology.getUnitCount(); unit++) {
+            Arrays.fill(seen, false);
+            for (int position = 0; position < size; position++) {
+                int value = values[topology.unitCell(unit, position)];
+                if(value != 0 && seen[value])
+                    return true;
+                seen[value] = true;
+            }
+        }
+        return false;
+    }
+
+    private boolean isValidSolution() {
+        int size = topology.size();
+        for (int unit = 0; unit < topology.getUnitCount(); unit++) {
+            Arrays.fill(seen, false);
+            for (int position = 0; position < size; position++) {
+                int value = values[topology.unitCell(unit, position)];
+                if(value == 0 || seen[value])
+                    return false;
+                seen[value] = true;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return the result of the last solve, null if there was none since the last reset
+     */
+    public SolveResult getLastResult() {
+        return lastResult;
+    }
+
+    /**
+     * Copies the values of the last solve, row by row, into target.
+     * When the strategies didn't finish the puzzle those are the values they filled.
+     */
+    public void copyValues(int[] target) {
+        if(lastResult == null){
+            throw new IllegalStateException("Nothing was solved since the last reset.");
+        }
+        System.arraycopy(values, 0, target, 0, values.length);
+    }
+
+    public int[][] getSolution() {
+        if(lastResult != SolveResult.SOLVED){
+            throw new IllegalStateException("The last puzzle wasn't solved.");
+        }
+        return BoardUtils.toIntBoard(values, topology.size());
+    }
+}
@@ -0,0 +1,127 @@
+package v2;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JDK Flight Recorder events of {@link Board}.
+ * All of them are disabled by default, a recording enables them with the settings of jfr/sudoku.jfc:
+ * java -XX:StartFlightRecording:settings=default,settings=jfr/sudoku.jfc,filename=solve.jfr ...
+ * The board checks once per solve which events are recorded and only creates those, so a disabled
+ * event costs nothing in the strategy loop or the search.
+ */
+public final class SolverEvents {
+
+    private static final EventType SOLVE_TYPE = EventType.getEventType(Solve.class);
+    private static final EventType SOLVE_ITERATION_TYPE = EventType.getEventType(SolveIteration.class);
+    private static final EventType STRATEGY_PASS_TYPE = EventType.getEventType(StrategyPass.class);
+    private static final EventType SEARCH_BRANCH_TYPE = EventType.getEventType(SearchBranch.class);
+
+    private SolverEvents() {
+    }
+
+    public static boolean isSolveEnabled() {
+        return SOLVE_TYPE.isEnabled();
+    }
+
+    public static boolean isSolveIterationEnabled() {
+        return SOLVE_ITERATION_TYPE.isEnabled();
+    }
+
+    public static boolean isStrategyPassEnabled() {
+        return STRATEGY_PASS_TYPE.isEnabled();
+    }
+
+    public static boolean isSearchBranchEnabled() {
+        return SEARCH_BRANCH_TYPE.isEnabled();
+    }
+
+    @Name("v2.Solve")
+    @Label("Solve")
+    @Description("One Board.solve() or Board.solveWithSearch() call, from the first strategy to its result")
+    @Category("Sudoku")
+    @Enabled(false)
+    @StackTrace(false)
+    public static class Solve extends Event {
+        @Label("Size")
+        public int size;
+
+        @Label("Filled Cells")
+        @Description("Filled cells when the solve started")
+        public int givens;
+
+        @Label("Result")
+        @Description("Name of the SolveResult")
+        public String result;
+
+        @Label("Iterations")
+        public int iterations;
+    }
+
+    @Name("v2.SolveIteration")
+    @Label("Solve Iteration")
+    @Description("One iteration of the strategies loop of Board.solve() or of a search node")
+    @Category("Sudoku")
+    @Enabled(false)
+    @StackTrace(false)
+    public static class SolveIteration extends Event {
+        @Label("Iteration")
+        public int iteration;
+
+        @Label("Empty Cells Before")
+        public int emptyCellsBefore;
+
+        @Label("Empty Cells After")
+        public int emptyCellsAfter;
+    }
+
+    @Name("v2.StrategyPass")
+    @Label("Strategy Pass")
+    @Description("One strategy run on one unit, or on the whole board for pointing, claiming and X-Wings")
+    @Category("Sudoku")
+    @Enabled(false)
+    @StackTrace(false)
+    public static class StrategyPass extends Event {
+        @Label("Technique")
+        public String technique;
+
+        @Label("Unit")
+        @Description("Topology unit: rows first, then columns, then boxes, -1 for a single or a whole board strategy")
+        public int unit;
+
+        @Label("Eliminations")
+        public int eliminations;
+
+        @Label("Placements")
+        public int placements;
+    }
+
+    @Name("v2.SearchBranch")
+    @Label("Search Branch")
+    @Description("One guess of Board.solveWithSearch(), from placing the number to its result")
+    @Category("Sudoku")
+    @Enabled(false)
+    @StackTrace(false)
+    public static class SearchBranch extends Event {
+        @Label("Depth")
+        public int depth;
+
+        @Label("Row")
+        public int row;
+
+        @Label("Column")
+        public int column;
+
+        @Label("Value")
+        public int value;
+
+        @Label("Result")
+        public String result;
+    }
+}
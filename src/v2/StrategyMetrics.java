@@ -0,0 +1,84 @@
+package v2;
+
+/**
+ * Counters per {@link Technique}: how many times it ran, the nanoseconds it took, and the
+ * eliminations and placements it made.
+ * A board measures a solve into its own instance (see {@link Board#setMetricsEnabled(boolean)}),
+ * and adds it to the cumulative {@link MetricsRegistry}. Not thread safe.
+ */
+public class StrategyMetrics {
+
+    private static final Technique[] TECHNIQUES = Technique.values();
+
+    private final long[] calls = new long[TECHNIQUES.length];
+    private final long[] nanos = new long[TECHNIQUES.length];
+    private final long[] eliminations = new long[TECHNIQUES.length];
+    private final long[] placements = new long[TECHNIQUES.length];
+
+    public void record(Technique technique, long elapsedNanos, int eliminated, int placed) {
+        int index = technique.ordinal();
+        calls[index]++;
+        nanos[index] += elapsedNanos;
+        eliminations[index] += eliminated;
+        placements[index] += placed;
+    }
+
+    public long getCalls(Technique technique) {
+        return calls[technique.ordinal()];
+    }
+
+    public long getNanos(Technique technique) {
+        return nanos[technique.ordinal()];
+    }
+
+    public long getEliminations(Technique technique) {
+        return eliminations[technique.ordinal()];
+    }
+
+    public long getPlacements(Technique technique) {
+        return placements[technique.ordinal()];
+    }
+
+    /**
+     * Adds the counters of other to this one.
+     */
+    public void add(StrategyMetrics other) {
+        for (int i = 0; i < TECHNIQUES.length; i++) {
+            calls[i] += other.calls[i];
+            nanos[i] += other.nanos[i];
+            eliminations[i] += other.eliminations[i];
+            placements[i] += other.placements[i];
+        }
+    }
+
+    public void reset() {
+        for (int i = 0; i < TECHNIQUES.length; i++) {
+            calls[i] = 0;
+            nanos[i] = 0;
+            eliminations[i] = 0;
+            placements[i] = 0;
+        }
+    }
+
+    public StrategyMetrics copy() {
+        StrategyMetrics copy = new StrategyMetrics();
+        copy.add(this);
+        return copy;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("Technique\tCalls\tMillis\tEliminations\tPlacements\n");
+        for (Technique technique : TECHNIQUES) {
+            int i = technique.ordinal();
+            if(calls[i] == 0)
+                continue;
+            sb.append(technique.getDisplayName()).append("\t")
+                    .append(calls[i]).append("\t")
+                    .append(String.format("%.3f", nanos[i] / 1e6)).append("\t")
+                    .append(eliminations[i]).append("\t")
+                    .append(placements[i]).append("\n");
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,205 @@
+package v2;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Naked and Hidden subsets of any size in one unit (line or box), found on the options bitmasks
+ * of its cells and the positions bitmasks of its numbers ({@link DigitPositions}).
+ * k empty cells whose options together hold only k numbers are a Naked subset, the numbers can be
+ * eliminated from the other cells of the unit.
+ * k numbers whose positions together cover only k cells are a Hidden subset, the other options of
+ * those cells can be eliminated.
+ * The empty cells left out of a Naked subset hold a Hidden subset and the other way around, so
+ * sizes up to half of the empty cells find them all.
+ * Combinations are tried in increasing order and a branch is cut as soon as its union has more
+ * than k bits, so only members with 2 to k bits take part.
+ */
+public class SubsetFinder {
+
+    private final DigitPositions positions;
+    private final int size;
+    private final long[] masks;
+    private final long[] members;
+    private long[] foundCells;
+    private long[] foundNumbers;
+    private int found;
+
+    /**
+     * @param positions the positions of the unit, its cells are registered in it
+     * @param size number of cells in the unit
+     */
+    public SubsetFinder(DigitPositions positions, int size) {
+        this.positions = positions;
+        this.size = size;
+        masks = new long[size];
+        members = new long[size];
+        foundCells = new long[8];
+        foundNumbers = new long[8];
+    }
+
+    /**
+     * @return number of empty cells of the unit that still have options
+     */
+    public int getEmptyCount() {
+        long empty = 0;
+        for (int number = 1; number <= size; number++) {
+            empty |= positions.get(number);
+        }
+        return Long.bitCount(empty);
+    }
+
+    /**
+     * Finds the Naked subsets of k cells, without changing the unit.
+     * @return number of subsets found
+     */
+    public int findNaked(int k) {
+        found = 0;
+        int count = 0;
+        for (int position = 0; position < size; position++) {
+            Cell cell = positions.getCell(position);
+            int options = cell.getOptionsCount();
+            if(cell.isEmpty() && options > 1 && options <= k){
+                masks[count] = cell.getOptionsMask();
+                members[count] = 1L << position;
+                count++;
+            }
+        }
+        search(count, k, 0, 0, 0L, 0L, true);
+        return found;
+    }
+
+    /**
+     * Finds the Hidden subsets of k numbers, without changing the unit.
+     * @return number of subsets found
+     */
+    public int findHidden(int k) {
+        found = 0;
+        int count = 0;
+        for (int number = 1; number <= size; number++) {
+            int cells = positions.count(number);
+            if(cells > 1 && cells <= k){
+                masks[count] = positions.get(number);
+                members[count] = Candidates.of(number);
+                count++;
+            }
+        }
+        search(count, k, 0, 0, 0L, 0L, false);
+        return found;
+    }
+
+    private void search(int count, int k, int from, int depth, long union, long chosen, boolean naked) {
+        if(depth == k){
+            if(Long.bitCount(union) == k){
+                add(naked ? chosen : union, naked ? union : chosen);
+            }
+            return;
+        }
+        for (int index = from; index <= count - (k - depth); index++) {
+            long newUnion = union | masks[index];
+            if(Long.bitCount(newUnion) <= k){
+                search(count, k, index + 1, depth + 1, newUnion, chosen | members[index], naked);
+            }
+        }
+    }
+
+    private void add(long cells, long numbers) {
+        if(found == foundCells.length){
+            foundCells = Arrays.copyOf(foundCells, found * 2);
+            foundNumbers = Arrays.copyOf(foundNumbers, found * 2);
+        }
+        foundCells[found] = cells;
+        foundNumbers[found] = numbers;
+        found++;
+    }
+
+    public int getFoundCount() {
+        return found;
+    }
+
+    /**
+     * @return bitmask of the positions in the unit of the cells of a found subset
+     */
+    public long getFoundCells(int index) {
+        return foundCells[index];
+    }
+
+    /**
+     * @return candidates mask of the numbers of a found subset
+     */
+    public long getFoundNumbers(int index) {
+        return foundNumbers[index];
+    }
+
+    /**
+     * Eliminates the numbers of every found Naked subset from the other cells of the unit.
+     */
+    public void eliminateNaked(Technique technique) {
+        for (int index = 0; index < found; index++) {
+            for (int position = 0; position < size; position++) {
+                if((foundCells[index] & 1L << position) == 0){
+                    eliminate(positions.getCell(position), foundNumbers[index], technique);
+                }
+            }
+        }
+    }
+
+    /**
+     * Eliminates the other options of the cells of every found Hidden subset.
+     */
+    public void eliminateHidden(Technique technique) {
+        for (int index = 0; index < found; index++) {
+            for (long rest = foundCells[index]; rest != 0; rest &= rest - 1) {
+                Cell cell = positions.getCell(Long.numberOfTrailingZeros(rest));
+                eliminate(cell, ~foundNumbers[index], technique);
+            }
+        }
+    }
+
+    private void eliminate(Cell cell, long numbers, Technique technique) {
+        if(!cell.isEmpty())
+            return;
+        for (long rest = cell.getOptionsMask() & numbers; rest != 0; rest &= rest - 1) {
+            cell.addIneligible(Candidates.lowestDigit(rest), technique);
+        }
+    }
+
+    /**
+     * @return the cells of every found subset, in the order of their positions
+     */
+    public List<Cell[]> getFoundSubsets() {
+        List<Cell[]> subsets = new ArrayList<>(found);
+        for (int index = 0; index < found; index++) {
+            Cell[] subset = new Cell[Long.bitCount(foundCells[index])];
+            int cell = 0;
+            for (long rest = foundCells[index]; rest != 0; rest &= rest - 1) {
+                subset[cell++] = positions.getCell(Long.numberOfTrailingZeros(rest));
+            }
+            subsets.add(subset);
+        }
+        return subsets;
+    }
+
+    /**
+     * Finds the Naked subsets of k cells and eliminates their numbers from the rest of the unit.
+     * @return the cells of the subsets
+     */
+    public List<Cell[]> eliminateNakedSubsets(int k, Technique technique) {
+        findNaked(k);
+        List<Cell[]> subsets = getFoundSubsets();
+        eliminateNaked(technique);
+        return subsets;
+    }
+
+    /**
+     * Finds the Hidden subsets of k numbers and eliminates the other options of their cells.
+     * @return the cells of the subsets
+     */
+    public List<Cell[]> eliminateHiddenSubsets(int k, Technique technique) {
+        findHidden(k);
+        List<Cell[]> subsets = getFoundSubsets();
+        eliminateHidden(technique);
+        return subsets;
+    }
+}
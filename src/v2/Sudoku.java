@@ -10,22 +10,14 @@ public class Sudoku {
     public static void main(String[] args) {
         Instant start = Instant.now();
         SudokuGridGenerator sudokuGridGenerator = new SudokuGridGenerator();
-        int[][] intsBoard;
-        Board board;
-        intsBoard = gridToBoard(sudokuGridGenerator.generateGrid(BOARD_SIZE));
-        for (int row = 0; row < BOARD_SIZE; row++) {
-            for (int column = 0; column < BOARD_SIZE; column++) {
-                System.out.println("Working on cell: [" + (row + 1) + "," + (column + 1) + "], out of [" + BOARD_SIZE + "," + BOARD_SIZE + "].");
-                if(Math.random() < 0.99) {
-                    int value = intsBoard[row][column];
-                    intsBoard[row][column] = 0;
-                    board = new Board(intsBoard);
-                    if(!board.solve()){
-                        intsBoard[row][column] = value;
-                    }
-                }
+        PuzzleDigger puzzleDigger = new PuzzleDigger().setProgressListener((cellsTried, cellsCount, cluesLeft) -> {
+            if(cellsTried % BOARD_SIZE == 0){
+                System.out.println("Tried " + cellsTried + " out of " + cellsCount + " cells, " + cluesLeft + " clues left.");
             }
-        }
+        });
+        int[][] intsBoard = BoardUtils.toIntBoard(sudokuGridGenerator.generateGrid(BOARD_SIZE), BOARD_SIZE);
+        intsBoard = puzzleDigger.dig(intsBoard, PuzzleDigger.RemovalOrder.STRATEGY_CONSTRAINED);
+        Board board;
         /*do{
 
             board = new Board(intsBoard);
@@ -41,16 +33,5 @@ public class Sudoku {
         System.out.println("Time taken: "+ timeElapsed.getSeconds() +" seconds");
     }
 
-    private static int[][] gridToBoard(int[] grid) {
-        int size = (int) Math.sqrt(grid.length);
-        int[][] board = new int[size][size];
-        int gridIndex = 0;
-        for (int row = 0; row < size; row++) {
-            for (int column = 0; column < size; column++) {
-                board[row][column] = grid[gridIndex++];
-            }
-        }
-        return board;
-    }
 
 }
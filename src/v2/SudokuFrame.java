@@ -60,8 +60,32 @@ public interface SudokuFrame {
      * or their subset, are called a Naked Quad.
      * All other appearances of the same candidates can be eliminated if they are in the same line
      * or box.
-     * The method will update the Line!
-     * @return List<Cell[]> list of naked triple
+     * The method will update the Frame!
+     * @return List<Cell[]> list of naked quad
      */
     List<Cell[]> getNakedQuad();
+
+    /**
+     * Three candidates that appear only in the same three cells of a line, or a box, are called
+     * a Hidden Triple.
+     * All other candidates in the three cells can be eliminated.
+     * The method will update the Frame!
+     * @return List<Cell[]> list of hidden triple
+     */
+    List<Cell[]> getHiddenTriple();
+
+    /**
+     * Four candidates that appear only in the same four cells of a line, or a box, are called
+     * a Hidden Quad.
+     * All other candidates in the four cells can be eliminated.
+     * The method will update the Frame!
+     * @return List<Cell[]> list of hidden quad
+     */
+    List<Cell[]> getHiddenQuad();
+
+    /**
+     * Naked and Hidden subsets of any size, see {@link SubsetFinder}.
+     * Finding doesn't change the Frame, the caller eliminates with the finder.
+     */
+    SubsetFinder getSubsetFinder();
 }
@@ -4,34 +4,159 @@
 
 package v2;
 
-import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Arrays;
+import java.util.SplittableRandom;
 
+/**
+ * Seeded generator: the same seed generates the same grids. The scratch buffers are kept between
+ * calls, so generating into a given array with {@link #generateGrid(int, int[])} allocates nothing
+ * once the buffers exist for the size. An instance isn't thread safe, give every thread its own
+ * with {@link #split()}.
+ */
 public class SudokuGridGenerator {
+    private final SplittableRandom random;
     private int[] grid;
+    private int[] numbers;
+    private boolean[] sorted;
+    private boolean[] registered;
+    private boolean[] blindSwapIndex;
+    private long basSwaps;
+    private long pasSwaps;
+    private long backtracks;
+    private long restarts;
+
+    public SudokuGridGenerator()
+    {
+        this(new SplittableRandom());
+    }
+
+    public SudokuGridGenerator(long seed)
+    {
+        this(new SplittableRandom(seed));
+    }
+
+    private SudokuGridGenerator(SplittableRandom random)
+    {
+        this.random = random;
+    }
+
+    /**
+     *@return a new generator with its own random stream, for use by another thread
+     */
+    public SudokuGridGenerator split()
+    {
+        return new SudokuGridGenerator(random.split());
+    }
+
+    /**
+     *@return number of box and adjacent-cell swaps (BAS) made since the generator was created
+     */
+    public long getBasSwaps()
+    {
+        return basSwaps;
+    }
+
+    /**
+     *@return number of preferred adjacent swaps (PAS) made since the generator was created
+     */
+    public long getPasSwaps()
+    {
+        return pasSwaps;
+    }
+
+    /**
+     *@return number of Advance and Backtrack Sorts (ABS) made since the generator was created
+     */
+    public long getBacktracks()
+    {
+        return backtracks;
+    }
+
+    /**
+     *@return number of times an imperfect grid was thrown away and generated again
+     */
+    public long getRestarts()
+    {
+        return restarts;
+    }
+
+    public void resetCounters()
+    {
+        basSwaps = 0;
+        pasSwaps = 0;
+        backtracks = 0;
+        restarts = 0;
+    }
+
+    private void ensureBuffers(int size)
+    {
+        int totalCells = size * size;
+        if(grid == null || grid.length != totalCells)
+        {
+            grid = new int[totalCells];
+            numbers = new int[size];
+            sorted = new boolean[totalCells];
+            registered = new boolean[size + 1];
+            blindSwapIndex = new boolean[totalCells];
+        }
+    }
+
+    private void shuffleNumbers()
+    {
+        for(int i = numbers.length - 1; i > 0; i--)
+        {
+            int j = random.nextInt(i + 1);
+            int temp = numbers[i];
+            numbers[i] = numbers[j];
+            numbers[j] = temp;
+        }
+    }
 
     /**
      *Generates a valid SIZE by SIZE Sudoku grid with 1 through SIZE appearing only once in every box, row, and column
      *@return an array of size TOTAL_CELLS containing the grid
      */
     public int[] generateGrid(int size)
+    {
+        int[] target = new int[size * size];
+        generateGrid(size, target);
+        return target;
+    }
+
+    /**
+     *Generates a valid SIZE by SIZE Sudoku grid into target, without allocating
+     *@param target an array of size TOTAL_CELLS
+     */
+    public void generateGrid(int size, int[] target)
+    {
+        if(target.length != size * size) throw new IllegalArgumentException("The target must be of length TOTAL_CELLS");
+        ensureBuffers(size);
+        while(!generate(size))
+        {
+            restarts++;
+        }
+        System.arraycopy(grid, 0, target, 0, grid.length);
+    }
+
+    private boolean generate(int size)
     {
         int totalCells = size * size;
         int sqrtSize = (int) Math.sqrt(size);
-        ArrayList<Integer> arr = new ArrayList<Integer>(size);
-        grid = new int[totalCells];
-        for(int i = 1; i <= size; i++) arr.add(i);
+        for(int i = 0; i < size; i++) numbers[i] = i + 1;
 
         //loads all boxes with numbers 1 through SIZE
         for(int i = 0; i < totalCells; i++)
         {
-            if(i% size == 0) Collections.shuffle(arr);
+            if(i% size == 0) shuffleNumbers();
             int perBox = ((i / sqrtSize) % sqrtSize) * size + ((i % (size * sqrtSize)) / size) * sqrtSize + (i / (size * sqrtSize)) * (size * sqrtSize) + (i % sqrtSize);
-            grid[perBox] = arr.get(i% size);
+            grid[perBox] = numbers[i% size];
         }
 
         //tracks rows and columns that have been sorted
-        boolean[] sorted = new boolean[totalCells];
+        Arrays.fill(sorted, false);
+
+        //ABS can keep going back and forth between the same rows, past this many the grid is started over
+        int backtracksLeft = size * size;
 
         for(int i = 0; i < size; i++)
         {
@@ -40,7 +165,7 @@ public class SudokuGridGenerator {
             for(int a = 0; a<2; a++)
             {
                 //every number 1-SIZE that is encountered is registered
-                boolean[] registered = new boolean[size + 1]; //index 0 will intentionally be left empty since there are only number 1-SIZE.
+                Arrays.fill(registered, false); //index 0 will intentionally be left empty since there are only number 1-SIZE.
                 int rowOrigin = i * size;
                 int colOrigin = i;
 
@@ -75,6 +200,7 @@ public class SudokuGridGenerator {
                                         grid[scan] = boxNum;
                                         grid[boxStep] = num;
                                         registered[boxNum] = true;
+                                        basSwaps++;
                                         continue ROW_COL;
                                     }
                                     else if(z == size - 1) //if z == SIZE  - 1, then break statement not reached: no candidates available
@@ -85,7 +211,7 @@ public class SudokuGridGenerator {
                                         int searchingNo = num;
 
                                         //noting the location for the blindSwaps to prevent infinite loops.
-                                        boolean[] blindSwapIndex = new boolean[totalCells];
+                                        Arrays.fill(blindSwapIndex, false);
 
                                         //loop of size SIZE  * 2 to prevent infinite loops as well. Max of SIZE  * 2 swaps are possible.
                                         //at the end of this loop, if continue or break statements are not reached, then
@@ -128,6 +254,7 @@ public class SudokuGridGenerator {
                                                             grid[pacing] = adjacentNo;
                                                             grid[adjacentCell] = searchingNo;
                                                             searchingNo = adjacentNo;
+                                                            pasSwaps++;
 
                                                             if(!registered[adjacentNo])
                                                             {
@@ -142,6 +269,8 @@ public class SudokuGridGenerator {
                                         }
                                         //begin Advance and Backtrack Sort (ABS)
                                         backtrack = true;
+                                        backtracks++;
+                                        if(--backtracksLeft == 0) return false;
                                         break ROW_COL;
                                     }
                                 }
@@ -165,12 +294,8 @@ public class SudokuGridGenerator {
             }
         }
 
-        if(!isPerfect()){
-//            throw new RuntimeException("ERROR: Imperfect grid generated.");
-            return generateGrid(size);
-        }
-
-        return grid;
+        //an imperfect grid is generated again by the caller
+        return isPerfect();
     }
 
     /**
@@ -203,7 +328,7 @@ public class SudokuGridGenerator {
         //for every box
         for(int i = 0; i < size; i++)
         {
-            boolean[] registered = new boolean[size + 1];
+            Arrays.fill(registered, false);
             registered[0] = true;
             int boxOrigin = (i * sqrtSize) % size + ((i * sqrtSize) / size) * (size * sqrtSize);
             for(int j = 0; j < size; j++)
@@ -219,7 +344,7 @@ public class SudokuGridGenerator {
         //for every row
         for(int i = 0; i < size; i++)
         {
-            boolean[] registered = new boolean[size + 1];
+            Arrays.fill(registered, false);
             registered[0] = true;
             int rowOrigin = i * size;
             for(int j = 0; j < size; j++)
@@ -235,7 +360,7 @@ public class SudokuGridGenerator {
         //for every column
         for(int i = 0; i < size; i++)
         {
-            boolean[] registered = new boolean[size + 1];
+            Arrays.fill(registered, false);
             registered[0] = true;
             int colOrigin = i;
             for(int j = 0; j < size; j++)
@@ -270,5 +395,6 @@ public class SudokuGridGenerator {
         }*/
         SudokuGridGenerator sudoku = new SudokuGridGenerator();
         printGrid(sudoku.generateGrid(25));
+        System.out.println("BAS swaps: " + sudoku.getBasSwaps() + ", PAS swaps: " + sudoku.getPasSwaps() + ", backtracks: " + sudoku.getBacktracks() + ", restarts: " + sudoku.getRestarts());
     }
 }
\ No newline at end of file
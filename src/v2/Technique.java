@@ -0,0 +1,88 @@
+package v2;
+
+/**
+ * The solving techniques of {@link Board}, used to tag measurements and eliminations.
+ * Initialization and placements aren't strategies, they tag the eliminations made by the givens
+ * and by putting a number.
+ */
+public enum Technique {
+    NAKED_SINGLE("Naked Single"),
+    HIDDEN_SINGLE("Hidden Single"),
+    NAKED_PAIR("Naked Pair"),
+    HIDDEN_PAIR("Hidden Pair"),
+    NAKED_TRIPLE("Naked Triple"),
+    HIDDEN_TRIPLE("Hidden Triple"),
+    NAKED_QUAD("Naked Quad"),
+    HIDDEN_QUAD("Hidden Quad"),
+    NAKED_SUBSET("Naked Subset"),
+    HIDDEN_SUBSET("Hidden Subset"),
+    POINTING_PAIR("Pointing Pair"),
+    CLAIMING_PAIR("Claiming Pair"),
+    X_WING("X-Wing"),
+    INITIALIZATION("Initialization"),
+    PLACEMENT("Put Number");
+
+    private final String displayName;
+
+    Technique(String displayName) {
+        this.displayName = displayName;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    /**
+     * @param size number of cells in the subset
+     * @return the Naked subset technique of the size, {@link #NAKED_SUBSET} above 4
+     */
+    public static Technique naked(int size) {
+        return switch (size) {
+            case 2 -> NAKED_PAIR;
+            case 3 -> NAKED_TRIPLE;
+            case 4 -> NAKED_QUAD;
+            default -> NAKED_SUBSET;
+        };
+    }
+
+    /**
+     * @param size number of numbers in the subset
+     * @return the Hidden subset technique of the size, {@link #HIDDEN_SUBSET} above 4
+     */
+    public static Technique hidden(int size) {
+        return switch (size) {
+            case 2 -> HIDDEN_PAIR;
+            case 3 -> HIDDEN_TRIPLE;
+            case 4 -> HIDDEN_QUAD;
+            default -> HIDDEN_SUBSET;
+        };
+    }
+
+    /**
+     * Maps the method names eliminations were tagged with before techniques, like "Line Naked Pair"
+     * or "Vertical Claiming Pair", to their technique.
+     * @throws IllegalArgumentException for an unknown method
+     */
+    public static Technique ofMethod(String method) {
+        return switch (method) {
+            case "Initialization" -> INITIALIZATION;
+            case "Line Put Number", "Box Put Number" -> PLACEMENT;
+            case "Line Naked Pair", "Box Naked Pair" -> NAKED_PAIR;
+            case "Line Hidden Pair", "Box Hidden Pair" -> HIDDEN_PAIR;
+            case "Line Naked Triple", "Box Naked Triple" -> NAKED_TRIPLE;
+            case "Line Naked Quad", "Box Naked Quad" -> NAKED_QUAD;
+            case "Vertical Pointing Pair", "Horizontal Pointing Pair" -> POINTING_PAIR;
+            case "Vertical Claiming Pair", "Horizontal Claiming Pair" -> CLAIMING_PAIR;
+            case "XWings" -> X_WING;
+            default -> ofName(method);
+        };
+    }
+
+    private static Technique ofName(String method) {
+        for (Technique technique : values()) {
+            if(technique.displayName.equals(method) || technique.name().equals(method))
+                return technique;
+        }
+        throw new IllegalArgumentException("Unknown method " + method);
+    }
+}
@@ -0,0 +1,168 @@
+package v2;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The geometry of a size x size board, computed once per size and shared by every board in the JVM.
+ * Cells are numbered row * size + column.
+ * Units are numbered 0..size-1 for the rows, size..2*size-1 for the columns
+ * and 2*size..3*size-1 for the boxes (boxes numbered left to right, top to bottom).
+ * Instances are immutable, get them with {@link #of(int)}.
+ */
+public final class Topology {
+
+    private static final Map<Integer, Topology> CACHE = new ConcurrentHashMap<>();
+
+    private final int size;
+    private final int boxSize;
+    private final int cellCount;
+    private final int[] rowOf;
+    private final int[] columnOf;
+    private final int[] boxOf;
+    private final int[] unitCells;
+    private final int[] positionInBox;
+    private final int peerCount;
+    private final int[] peers;
+
+    private Topology(int size) {
+        this.size = size;
+        boxSize = (int) Math.round(Math.sqrt(size));
+        cellCount = size * size;
+        rowOf = new int[cellCount];
+        columnOf = new int[cellCount];
+        boxOf = new int[cellCount];
+        positionInBox = new int[cellCount];
+        for (int cell = 0; cell < cellCount; cell++) {
+            int row = cell / size;
+            int column = cell % size;
+            rowOf[cell] = row;
+            columnOf[cell] = column;
+            boxOf[cell] = (row / boxSize) * boxSize + column / boxSize;
+            positionInBox[cell] = (row % boxSize) * boxSize + column % boxSize;
+        }
+        unitCells = new int[3 * size * size];
+        for (int unit = 0; unit < size; unit++) {
+            int boxRow = (unit / boxSize) * boxSize;
+            int boxColumn = (unit % boxSize) * boxSize;
+            for (int i = 0; i < size; i++) {
+                unitCells[unit * size + i] = unit * size + i;
+                unitCells[(size + unit) * size + i] = i * size + unit;
+                unitCells[(2 * size + unit) * size + i] = (boxRow + i / boxSize) * size + boxColumn + i % boxSize;
+            }
+        }
+        peerCount = 3 * (size - 1) - 2 * (boxSize - 1);
+        peers = new int[cellCount * peerCount];
+        for (int cell = 0; cell < cellCount; cell++) {
+            int index = cell * peerCount;
+            for (int other = 0; other < cellCount; other++) {
+                if(other != cell && (rowOf[other] == rowOf[cell] || columnOf[other] == columnOf[cell] || boxOf[other] == boxOf[cell])){
+                    peers[index++] = other;
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the shared topology of a size x size board
+     * @throws IllegalArgumentException if size has no integer square root or doesn't fit a candidates mask
+     */
+    public static Topology of(int size) {
+        Topology topology = CACHE.get(size);
+        if(topology != null)
+            return topology;
+        int boxSize = (int) Math.round(Math.sqrt(size));
+        if(size < 1 || boxSize * boxSize != size){
+            throw new IllegalArgumentException(size + " doesn't have integer square root.");
+        }
+        if(size > Candidates.MAX_DIGITS){
+            throw new IllegalArgumentException("Board size " + size + " is bigger than " + Candidates.MAX_DIGITS);
+        }
+        return CACHE.computeIfAbsent(size, Topology::new);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int getBoxSize() {
+        return boxSize;
+    }
+
+    public int getCellCount() {
+        return cellCount;
+    }
+
+    public int getUnitCount() {
+        return 3 * size;
+    }
+
+    public int cellIndex(int row, int column) {
+        return row * size + column;
+    }
+
+    public int rowOf(int cell) {
+        return rowOf[cell];
+    }
+
+    public int columnOf(int cell) {
+        return columnOf[cell];
+    }
+
+    public int boxOf(int cell) {
+        return boxOf[cell];
+    }
+
+    /**
+     * @return the index of the cell inside its box, row major
+     */
+    public int positionInBox(int cell) {
+        return positionInBox[cell];
+    }
+
+    public int rowUnit(int row) {
+        return row;
+    }
+
+    public int columnUnit(int column) {
+        return size + column;
+    }
+
+    public int boxUnit(int box) {
+        return 2 * size + box;
+    }
+
+    /**
+     * @param kind 0 for the row, 1 for the column, 2 for the box
+     * @return the unit number of the cell's row, column or box
+     */
+    public int unitOf(int cell, int kind) {
+        return switch (kind) {
+            case 0 -> rowOf[cell];
+            case 1 -> size + columnOf[cell];
+            default -> 2 * size + boxOf[cell];
+        };
+    }
+
+    /**
+     * @return the cell at the given position of the unit
+     */
+    public int unitCell(int unit, int position) {
+        return unitCells[unit * size + position];
+    }
+
+    public boolean isInUnit(int cell, int unit) {
+        return rowOf[cell] == unit || size + columnOf[cell] == unit || 2 * size + boxOf[cell] == unit;
+    }
+
+    /**
+     * @return number of cells that share a row, a column or a box with any cell (20 for 9x9)
+     */
+    public int getPeerCount() {
+        return peerCount;
+    }
+
+    public int peer(int cell, int index) {
+        return peers[cell * peerCount + index];
+    }
+}
@@ -0,0 +1,110 @@
+package v2;
+
+import java.util.Arrays;
+
+/**
+ * Undo log of cell changes.
+ * Every change made to a cell while a checkpoint is open saves the cell's previous value and
+ * options, rolling back restores them in reverse order, so the cost of a rollback is
+ * proportional to the number of changes made since the checkpoint.
+ */
+public class Trail {
+
+    private Cell[] cells;
+    private int[] values;
+    private long[] options;
+    private int length;
+    private int[] marks;
+    private int[] recordMarks;
+    private int depth;
+    private EliminationSink eliminations;
+
+    public Trail(EliminationSink eliminations) {
+        this.eliminations = eliminations;
+        cells = new Cell[64];
+        values = new int[64];
+        options = new long[64];
+        marks = new int[16];
+        recordMarks = new int[16];
+    }
+
+    /**
+     * @throws IllegalStateException while a checkpoint is open, its mark belongs to the old sink
+     */
+    void setEliminationSink(EliminationSink eliminations) {
+        if(isActive()){
+            throw new IllegalStateException("Can't replace the elimination sink while a checkpoint is open.");
+        }
+        this.eliminations = eliminations;
+    }
+
+    public boolean isActive() {
+        return depth > 0;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * Saves the state of the cell before it's changed, does nothing when no checkpoint is open.
+     */
+    public void save(Cell cell, int value, long cellOptions) {
+        if(depth == 0)
+            return;
+        if(length == cells.length){
+            cells = Arrays.copyOf(cells, length * 2);
+            values = Arrays.copyOf(values, length * 2);
+            options = Arrays.copyOf(options, length * 2);
+        }
+        cells[length] = cell;
+        values[length] = value;
+        options[length] = cellOptions;
+        length++;
+    }
+
+    /**
+     * Opens a new checkpoint on top of the open ones.
+     * @return the depth of the new checkpoint
+     */
+    public int checkpoint() {
+        if(depth == marks.length){
+            marks = Arrays.copyOf(marks, depth * 2);
+            recordMarks = Arrays.copyOf(recordMarks, depth * 2);
+        }
+        marks[depth] = length;
+        recordMarks[depth] = eliminations.count();
+        return ++depth;
+    }
+
+    /**
+     * Undoes every change made since the last open checkpoint and closes it.
+     */
+    public void rollback() {
+        if(depth == 0){
+            throw new IllegalStateException("No checkpoint to roll back to.");
+        }
+        depth--;
+        int mark = marks[depth];
+        while (length > mark) {
+            length--;
+            cells[length].restore(values[length], options[length]);
+            cells[length] = null;
+        }
+        eliminations.truncate(recordMarks[depth]);
+    }
+
+    /**
+     * Closes the last open checkpoint and keeps its changes, they are undone by an outer rollback.
+     */
+    public void commit() {
+        if(depth == 0){
+            throw new IllegalStateException("No checkpoint to commit.");
+        }
+        depth--;
+        if(depth == 0){
+            Arrays.fill(cells, 0, length, null);
+            length = 0;
+        }
+    }
+}
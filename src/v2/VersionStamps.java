@@ -0,0 +1,37 @@
+package v2;
+
+import java.util.Arrays;
+
+/**
+ * The unit versions a strategy saw the last time it examined each unit.
+ * A strategy only depends on the state of the unit it examines, so a unit whose version
+ * didn't change since can be skipped, the strategy would find nothing new in it.
+ */
+public class VersionStamps {
+
+    private final int[] seen;
+
+    public VersionStamps(int units) {
+        seen = new int[units];
+        Arrays.fill(seen, -1);
+    }
+
+    public boolean isChanged(int unit, int version) {
+        return seen[unit] != version;
+    }
+
+    public void markSeen(int unit, int version) {
+        seen[unit] = version;
+    }
+
+    /**
+     * Marks the unit version as seen.
+     * @return true if the unit changed since it was last seen
+     */
+    public boolean checkAndMark(int unit, int version) {
+        if(seen[unit] == version)
+            return false;
+        seen[unit] = version;
+        return true;
+    }
+}